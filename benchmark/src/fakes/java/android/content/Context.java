@@ -0,0 +1,21 @@
+package android.content;
+
+import java.io.File;
+
+/**
+ * 基准测试用的纯JVM替身，只保留库用到的方法
+ */
+public abstract class Context {
+
+    public static final String LAYOUT_INFLATER_SERVICE = "layout_inflater";
+
+    public abstract Object getSystemService(String name);
+
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    public File getCacheDir() {
+        return new File(System.getProperty("java.io.tmpdir"));
+    }
+}
@@ -0,0 +1,28 @@
+package android.os;
+
+/**
+ * 基准测试用的纯JVM替身，没有消息循环，投递的任务不会执行
+ */
+public class Handler {
+
+    public Handler() {
+    }
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable r) {
+        return false;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        return false;
+    }
+
+    public final boolean postAtFrontOfQueue(Runnable r) {
+        return false;
+    }
+
+    public final void removeCallbacks(Runnable r) {
+    }
+}
@@ -0,0 +1,20 @@
+package android.os;
+
+/**
+ * 基准测试用的纯JVM替身，运行基准的线程视为主线程
+ */
+public final class Looper {
+
+    private static final Looper sMainLooper = new Looper();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return sMainLooper;
+    }
+
+    public static Looper myLooper() {
+        return sMainLooper;
+    }
+}
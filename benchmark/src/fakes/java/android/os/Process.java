@@ -0,0 +1,12 @@
+package android.os;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public class Process {
+
+    public static final int THREAD_PRIORITY_BACKGROUND = 10;
+
+    public static void setThreadPriority(int priority) {
+    }
+}
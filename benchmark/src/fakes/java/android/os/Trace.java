@@ -0,0 +1,16 @@
+package android.os;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public final class Trace {
+
+    private Trace() {
+    }
+
+    public static void beginSection(String sectionName) {
+    }
+
+    public static void endSection() {
+    }
+}
@@ -0,0 +1,21 @@
+package android.support.v4.view;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 基准测试用的纯JVM替身，不会回调
+ */
+public final class AsyncLayoutInflater {
+
+    public interface OnInflateFinishedListener {
+        void onInflateFinished(View view, int resid, ViewGroup parent);
+    }
+
+    public AsyncLayoutInflater(Context context) {
+    }
+
+    public void inflate(int resid, ViewGroup parent, OnInflateFinishedListener callback) {
+    }
+}
@@ -0,0 +1,39 @@
+package android.support.v7.util;
+
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * 基准测试用的纯JVM替身，基准不覆盖diff，调用时直接报错
+ */
+public class DiffUtil {
+
+    public static DiffResult calculateDiff(Callback callback) {
+        return calculateDiff(callback, true);
+    }
+
+    public static DiffResult calculateDiff(Callback callback, boolean detectMoves) {
+        throw new UnsupportedOperationException("DiffUtil is not available in benchmarks");
+    }
+
+    public abstract static class Callback {
+        public abstract int getOldListSize();
+
+        public abstract int getNewListSize();
+
+        public abstract boolean areItemsTheSame(int oldItemPosition, int newItemPosition);
+
+        public abstract boolean areContentsTheSame(int oldItemPosition, int newItemPosition);
+
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            return null;
+        }
+    }
+
+    public static class DiffResult {
+        public void dispatchUpdatesTo(RecyclerView.Adapter adapter) {
+        }
+
+        public void dispatchUpdatesTo(ListUpdateCallback updateCallback) {
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package android.support.v7.util;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public interface ListUpdateCallback {
+
+    void onInserted(int position, int count);
+
+    void onRemoved(int position, int count);
+
+    void onMoved(int fromPosition, int toPosition);
+
+    void onChanged(int position, int count, Object payload);
+}
@@ -0,0 +1,50 @@
+package android.support.v7.widget;
+
+import android.content.Context;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public class GridLayoutManager extends LinearLayoutManager {
+
+    private final int mSpanCount;
+    private SpanSizeLookup mSpanSizeLookup = new DefaultSpanSizeLookup();
+
+    public GridLayoutManager(Context context, int spanCount) {
+        super(context);
+        mSpanCount = spanCount;
+    }
+
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    public SpanSizeLookup getSpanSizeLookup() {
+        return mSpanSizeLookup;
+    }
+
+    public void setSpanSizeLookup(SpanSizeLookup spanSizeLookup) {
+        mSpanSizeLookup = spanSizeLookup;
+    }
+
+    public abstract static class SpanSizeLookup {
+        public abstract int getSpanSize(int position);
+
+        public int getSpanIndex(int position, int spanCount) {
+            return 0;
+        }
+
+        public void setSpanIndexCacheEnabled(boolean cacheSpanIndices) {
+        }
+
+        public void invalidateSpanIndexCache() {
+        }
+    }
+
+    public static final class DefaultSpanSizeLookup extends SpanSizeLookup {
+        @Override
+        public int getSpanSize(int position) {
+            return 1;
+        }
+    }
+}
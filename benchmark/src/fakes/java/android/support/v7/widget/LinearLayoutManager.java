@@ -0,0 +1,46 @@
+package android.support.v7.widget;
+
+import android.content.Context;
+
+/**
+ * 基准测试用的纯JVM替身，可见位置由基准代码覆盖
+ */
+public class LinearLayoutManager extends RecyclerView.LayoutManager {
+
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+
+    public LinearLayoutManager(Context context) {
+    }
+
+    public int getOrientation() {
+        return VERTICAL;
+    }
+
+    public boolean getReverseLayout() {
+        return false;
+    }
+
+    public boolean getStackFromEnd() {
+        return false;
+    }
+
+    public int findFirstVisibleItemPosition() {
+        return RecyclerView.NO_POSITION;
+    }
+
+    public int findFirstCompletelyVisibleItemPosition() {
+        return RecyclerView.NO_POSITION;
+    }
+
+    public int findLastVisibleItemPosition() {
+        return RecyclerView.NO_POSITION;
+    }
+
+    public int findLastCompletelyVisibleItemPosition() {
+        return RecyclerView.NO_POSITION;
+    }
+
+    public void scrollToPositionWithOffset(int position, int offset) {
+    }
+}
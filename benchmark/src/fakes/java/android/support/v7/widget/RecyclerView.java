@@ -0,0 +1,363 @@
+package android.support.v7.widget;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基准测试用的纯JVM替身，不做布局
+ * Adapter的通知会像support库一样分发给注册的AdapterDataObserver
+ */
+public class RecyclerView extends ViewGroup {
+
+    public static final int NO_POSITION = -1;
+    public static final long NO_ID = -1;
+    public static final int SCROLL_STATE_IDLE = 0;
+    public static final int SCROLL_STATE_DRAGGING = 1;
+    public static final int SCROLL_STATE_SETTLING = 2;
+
+    private LayoutManager mLayout;
+    private Adapter mAdapter;
+    private RecycledViewPool mRecycledViewPool;
+    private int mScrollState = SCROLL_STATE_IDLE;
+    private final List<OnScrollListener> mScrollListeners = new ArrayList<>();
+
+    public RecyclerView(Context context) {
+        super(context);
+    }
+
+    public void setLayoutManager(LayoutManager layout) {
+        mLayout = layout;
+    }
+
+    public LayoutManager getLayoutManager() {
+        return mLayout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void setAdapter(Adapter adapter) {
+        if (mAdapter != null) {
+            mAdapter.onDetachedFromRecyclerView(this);
+        }
+        mAdapter = adapter;
+        if (adapter != null) {
+            adapter.onAttachedToRecyclerView(this);
+        }
+    }
+
+    public Adapter getAdapter() {
+        return mAdapter;
+    }
+
+    public void setRecycledViewPool(RecycledViewPool pool) {
+        mRecycledViewPool = pool;
+    }
+
+    public RecycledViewPool getRecycledViewPool() {
+        if (mRecycledViewPool == null) {
+            mRecycledViewPool = new RecycledViewPool();
+        }
+        return mRecycledViewPool;
+    }
+
+    public int getChildAdapterPosition(View child) {
+        return NO_POSITION;
+    }
+
+    public int getScrollState() {
+        return mScrollState;
+    }
+
+    public void addOnScrollListener(OnScrollListener listener) {
+        mScrollListeners.add(listener);
+    }
+
+    public void removeOnScrollListener(OnScrollListener listener) {
+        mScrollListeners.remove(listener);
+    }
+
+    // 模拟一次滑动，按support库的顺序回调滑动监听
+    public void dispatchScroll(int dx, int dy) {
+        for (int i = mScrollListeners.size() - 1; i >= 0; i--) {
+            mScrollListeners.get(i).onScrolled(this, dx, dy);
+        }
+    }
+
+    public void dispatchScrollState(int state) {
+        mScrollState = state;
+        for (int i = mScrollListeners.size() - 1; i >= 0; i--) {
+            mScrollListeners.get(i).onScrollStateChanged(this, state);
+        }
+    }
+
+    public abstract static class Adapter<VH extends ViewHolder> {
+
+        private final List<AdapterDataObserver> mObservers = new ArrayList<>();
+        private boolean mHasStableIds;
+
+        public abstract VH onCreateViewHolder(ViewGroup parent, int viewType);
+
+        public abstract void onBindViewHolder(VH holder, int position);
+
+        public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+            onBindViewHolder(holder, position);
+        }
+
+        public abstract int getItemCount();
+
+        public int getItemViewType(int position) {
+            return 0;
+        }
+
+        public long getItemId(int position) {
+            return NO_ID;
+        }
+
+        public void setHasStableIds(boolean hasStableIds) {
+            mHasStableIds = hasStableIds;
+        }
+
+        public final boolean hasStableIds() {
+            return mHasStableIds;
+        }
+
+        public final VH createViewHolder(ViewGroup parent, int viewType) {
+            VH holder = onCreateViewHolder(parent, viewType);
+            holder.mItemViewType = viewType;
+            return holder;
+        }
+
+        public final void bindViewHolder(VH holder, int position) {
+            onBindViewHolder(holder, position, Collections.<Object>emptyList());
+        }
+
+        public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public void onViewAttachedToWindow(VH holder) {
+        }
+
+        public void onViewDetachedFromWindow(VH holder) {
+        }
+
+        public void onViewRecycled(VH holder) {
+        }
+
+        public void registerAdapterDataObserver(AdapterDataObserver observer) {
+            mObservers.add(observer);
+        }
+
+        public void unregisterAdapterDataObserver(AdapterDataObserver observer) {
+            mObservers.remove(observer);
+        }
+
+        public final boolean hasObservers() {
+            return !mObservers.isEmpty();
+        }
+
+        public final void notifyDataSetChanged() {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onChanged();
+            }
+        }
+
+        public final void notifyItemChanged(int position) {
+            notifyItemRangeChanged(position, 1, null);
+        }
+
+        public final void notifyItemChanged(int position, Object payload) {
+            notifyItemRangeChanged(position, 1, payload);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount) {
+            notifyItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeChanged(positionStart, itemCount, payload);
+            }
+        }
+
+        public final void notifyItemInserted(int position) {
+            notifyItemRangeInserted(position, 1);
+        }
+
+        public final void notifyItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeInserted(positionStart, itemCount);
+            }
+        }
+
+        public final void notifyItemMoved(int fromPosition, int toPosition) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeMoved(fromPosition, toPosition, 1);
+            }
+        }
+
+        public final void notifyItemRemoved(int position) {
+            notifyItemRangeRemoved(position, 1);
+        }
+
+        public final void notifyItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = mObservers.size() - 1; i >= 0; i--) {
+                mObservers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+    }
+
+    public abstract static class AdapterDataObserver {
+        public void onChanged() {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+
+    public abstract static class ViewHolder {
+        public final View itemView;
+        int mItemViewType = -1;
+        private boolean mRecyclable = true;
+
+        public ViewHolder(View itemView) {
+            if (itemView == null) {
+                throw new IllegalArgumentException("itemView may not be null");
+            }
+            this.itemView = itemView;
+        }
+
+        public final int getItemViewType() {
+            return mItemViewType;
+        }
+
+        public final int getAdapterPosition() {
+            return NO_POSITION;
+        }
+
+        public final int getLayoutPosition() {
+            return NO_POSITION;
+        }
+
+        public final long getItemId() {
+            return NO_ID;
+        }
+
+        public final void setIsRecyclable(boolean recyclable) {
+            mRecyclable = recyclable;
+        }
+
+        public final boolean isRecyclable() {
+            return mRecyclable;
+        }
+    }
+
+    public abstract static class LayoutManager {
+        public int getItemCount() {
+            return 0;
+        }
+
+        public int getChildCount() {
+            return 0;
+        }
+
+        public View getChildAt(int index) {
+            return null;
+        }
+
+        public int getPosition(View view) {
+            return NO_POSITION;
+        }
+
+        public View findViewByPosition(int position) {
+            return null;
+        }
+
+        public int getDecoratedTop(View child) {
+            return 0;
+        }
+
+        public int getDecoratedLeft(View child) {
+            return 0;
+        }
+
+        public int getPaddingTop() {
+            return 0;
+        }
+
+        public int getPaddingLeft() {
+            return 0;
+        }
+
+        public int getWidth() {
+            return 0;
+        }
+
+        public int getHeight() {
+            return 0;
+        }
+
+        public boolean canScrollVertically() {
+            return false;
+        }
+
+        public boolean canScrollHorizontally() {
+            return false;
+        }
+
+        public void scrollToPosition(int position) {
+        }
+    }
+
+    public abstract static class OnScrollListener {
+        public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        }
+
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        }
+    }
+
+    public static class LayoutParams extends ViewGroup.MarginLayoutParams {
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+    }
+
+    public static class RecycledViewPool {
+        public void setMaxRecycledViews(int viewType, int max) {
+        }
+
+        public int getRecycledViewCount(int viewType) {
+            return 0;
+        }
+
+        public ViewHolder getRecycledView(int viewType) {
+            return null;
+        }
+
+        public void putRecycledView(ViewHolder scrap) {
+        }
+
+        public void clear() {
+        }
+    }
+}
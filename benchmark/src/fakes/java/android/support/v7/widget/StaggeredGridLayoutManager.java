@@ -0,0 +1,52 @@
+package android.support.v7.widget;
+
+/**
+ * 基准测试用的纯JVM替身，可见位置由基准代码覆盖
+ */
+public class StaggeredGridLayoutManager extends RecyclerView.LayoutManager {
+
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+
+    private final int mSpanCount;
+
+    public StaggeredGridLayoutManager(int spanCount, int orientation) {
+        mSpanCount = spanCount;
+    }
+
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    public int[] findFirstVisibleItemPositions(int[] into) {
+        return into;
+    }
+
+    public int[] findFirstCompletelyVisibleItemPositions(int[] into) {
+        return into;
+    }
+
+    public int[] findLastVisibleItemPositions(int[] into) {
+        return into;
+    }
+
+    public int[] findLastCompletelyVisibleItemPositions(int[] into) {
+        return into;
+    }
+
+    public static class LayoutParams extends RecyclerView.LayoutParams {
+        private boolean mFullSpan;
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public void setFullSpan(boolean fullSpan) {
+            mFullSpan = fullSpan;
+        }
+
+        public boolean isFullSpan() {
+            return mFullSpan;
+        }
+    }
+}
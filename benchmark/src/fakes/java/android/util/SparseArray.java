@@ -0,0 +1,30 @@
+package android.util;
+
+import java.util.HashMap;
+
+/**
+ * 基准测试用的纯JVM替身，用HashMap实现，只提供库中用到的方法
+ */
+public class SparseArray<E> {
+
+    private final HashMap<Integer, E> mValues = new HashMap<>();
+
+    public SparseArray() {
+    }
+
+    public E get(int key) {
+        return mValues.get(key);
+    }
+
+    public void put(int key, E value) {
+        mValues.put(key, value);
+    }
+
+    public void remove(int key) {
+        mValues.remove(key);
+    }
+
+    public int size() {
+        return mValues.size();
+    }
+}
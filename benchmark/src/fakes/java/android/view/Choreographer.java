@@ -0,0 +1,26 @@
+package android.view;
+
+/**
+ * 基准测试用的纯JVM替身，没有vsync，回调不会执行
+ */
+public final class Choreographer {
+
+    private static final Choreographer sInstance = new Choreographer();
+
+    public interface FrameCallback {
+        void doFrame(long frameTimeNanos);
+    }
+
+    private Choreographer() {
+    }
+
+    public static Choreographer getInstance() {
+        return sInstance;
+    }
+
+    public void postFrameCallback(FrameCallback callback) {
+    }
+
+    public void removeFrameCallback(FrameCallback callback) {
+    }
+}
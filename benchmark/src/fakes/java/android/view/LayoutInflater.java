@@ -0,0 +1,31 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * 基准测试用的纯JVM替身，由基准代码实现具体的布局
+ */
+public abstract class LayoutInflater {
+
+    private final Context mContext;
+
+    protected LayoutInflater(Context context) {
+        mContext = context;
+    }
+
+    public static LayoutInflater from(Context context) {
+        return (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+    }
+
+    public Context getContext() {
+        return mContext;
+    }
+
+    public View inflate(int resource, ViewGroup root) {
+        return inflate(resource, root, root != null);
+    }
+
+    public abstract View inflate(int resource, ViewGroup root, boolean attachToRoot);
+
+    public abstract LayoutInflater cloneInContext(Context newContext);
+}
@@ -0,0 +1,117 @@
+package android.view;
+
+import android.content.Context;
+
+/**
+ * 基准测试用的纯JVM替身，只保存id、可见性和父布局，不做测量和绘制
+ */
+public class View {
+
+    public static final int NO_ID = -1;
+    public static final int VISIBLE = 0;
+    public static final int INVISIBLE = 4;
+    public static final int GONE = 8;
+
+    public interface OnClickListener {
+        void onClick(View v);
+    }
+
+    public static class MeasureSpec {
+        public static final int EXACTLY = 1 << 30;
+
+        public static int makeMeasureSpec(int size, int mode) {
+            return size | mode;
+        }
+    }
+
+    private final Context mContext;
+    private int mId = NO_ID;
+    private int mVisibility = VISIBLE;
+    ViewParent mParent;
+    private ViewGroup.LayoutParams mLayoutParams;
+
+    public View(Context context) {
+        mContext = context;
+    }
+
+    public Context getContext() {
+        return mContext;
+    }
+
+    public void setId(int id) {
+        mId = id;
+    }
+
+    public int getId() {
+        return mId;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends View> T findViewById(int id) {
+        return (T) findViewTraversal(id);
+    }
+
+    View findViewTraversal(int id) {
+        return id == mId ? this : null;
+    }
+
+    public void setVisibility(int visibility) {
+        mVisibility = visibility;
+    }
+
+    public int getVisibility() {
+        return mVisibility;
+    }
+
+    public void setOnClickListener(OnClickListener listener) {
+    }
+
+    public ViewGroup.LayoutParams getLayoutParams() {
+        return mLayoutParams;
+    }
+
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        mLayoutParams = params;
+    }
+
+    public ViewParent getParent() {
+        return mParent;
+    }
+
+    public final void measure(int widthMeasureSpec, int heightMeasureSpec) {
+    }
+
+    public void layout(int l, int t, int r, int b) {
+    }
+
+    public void requestLayout() {
+    }
+
+    public boolean post(Runnable action) {
+        return false;
+    }
+
+    public int getWidth() {
+        return 0;
+    }
+
+    public int getHeight() {
+        return 0;
+    }
+
+    public int getLeft() {
+        return 0;
+    }
+
+    public int getTop() {
+        return 0;
+    }
+
+    public int getPaddingLeft() {
+        return 0;
+    }
+
+    public int getPaddingTop() {
+        return 0;
+    }
+}
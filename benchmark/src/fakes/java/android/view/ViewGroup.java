@@ -0,0 +1,70 @@
+package android.view;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试用的纯JVM替身，findViewById按深度优先查找子View
+ */
+public abstract class ViewGroup extends View implements ViewParent {
+
+    public static class LayoutParams {
+        public static final int MATCH_PARENT = -1;
+        public static final int WRAP_CONTENT = -2;
+
+        public int width;
+        public int height;
+
+        public LayoutParams(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    public static class MarginLayoutParams extends LayoutParams {
+        public MarginLayoutParams(int width, int height) {
+            super(width, height);
+        }
+    }
+
+    private final List<View> mChildren = new ArrayList<>();
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public void addView(View child) {
+        mChildren.add(child);
+        child.mParent = this;
+    }
+
+    public void removeView(View child) {
+        if (mChildren.remove(child)) {
+            child.mParent = null;
+        }
+    }
+
+    public int getChildCount() {
+        return mChildren.size();
+    }
+
+    public View getChildAt(int index) {
+        return mChildren.get(index);
+    }
+
+    @Override
+    View findViewTraversal(int id) {
+        if (id == getId()) {
+            return this;
+        }
+        for (int i = 0; i < mChildren.size(); i++) {
+            View view = mChildren.get(i).findViewTraversal(id);
+            if (view != null) {
+                return view;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package android.view;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public interface ViewParent {
+}
@@ -0,0 +1,14 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public class LinearLayout extends ViewGroup {
+
+    public LinearLayout(Context context) {
+        super(context);
+    }
+}
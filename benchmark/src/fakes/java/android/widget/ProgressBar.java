@@ -0,0 +1,14 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.View;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public class ProgressBar extends View {
+
+    public ProgressBar(Context context) {
+        super(context);
+    }
+}
@@ -0,0 +1,14 @@
+package android.widget;
+
+import android.content.Context;
+import android.view.View;
+
+/**
+ * 基准测试用的纯JVM替身
+ */
+public class TextView extends View {
+
+    public TextView(Context context) {
+        super(context);
+    }
+}
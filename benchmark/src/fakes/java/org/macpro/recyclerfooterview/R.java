@@ -0,0 +1,19 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 基准测试用的资源id，对应库中的layout_refresh_footer
+ */
+public final class R {
+
+    public static final class layout {
+        public static final int layout_refresh_footer = 0x7f030001;
+    }
+
+    public static final class id {
+        public static final int pb_loading = 0x7f020001;
+        public static final int tv_loading = 0x7f020002;
+        public static final int ll_end = 0x7f020003;
+        public static final int ll_no_data = 0x7f020004;
+        public static final int ll_error = 0x7f020005;
+    }
+}
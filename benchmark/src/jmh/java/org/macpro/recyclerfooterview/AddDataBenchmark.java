@@ -0,0 +1,72 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * addData的耗时：一次添加全部数据，以及按每页20条分页追加
+ * Adapter注册了一个空的观察者，通知的分发开销和挂在RecyclerView上时一致
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AddDataBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private Context mContext;
+    private List<String> mItems;
+    private List<List<String>> mPages;
+
+    @Setup
+    public void setUp() {
+        mContext = BenchmarkFixtures.newContext();
+        mItems = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            mItems.add("item " + i);
+        }
+        mPages = new ArrayList<>();
+        for (int start = 0; start < size; start += PAGE_SIZE) {
+            mPages.add(new ArrayList<>(mItems.subList(start, Math.min(size, start + PAGE_SIZE))));
+        }
+    }
+
+    @Benchmark
+    public LoadMoreLinearBaseAdapter<String> addData_singleBatch() {
+        LoadMoreLinearBaseAdapter<String> adapter = newAdapter();
+        adapter.addData(mItems);
+        return adapter;
+    }
+
+    @Benchmark
+    public LoadMoreLinearBaseAdapter<String> addData_pages() {
+        LoadMoreLinearBaseAdapter<String> adapter = newAdapter();
+        for (int i = 0; i < mPages.size(); i++) {
+            adapter.addData(mPages.get(i));
+        }
+        return adapter;
+    }
+
+    private LoadMoreLinearBaseAdapter<String> newAdapter() {
+        LoadMoreLinearBaseAdapter<String> adapter = new BenchmarkFixtures.StringAdapter(mContext);
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+        });
+        return adapter;
+    }
+}
@@ -0,0 +1,92 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+/**
+ * 基准测试共用的Context、布局和Adapter，运行在src/fakes下的纯JVM替身上
+ */
+final class BenchmarkFixtures {
+
+    // item布局，包含ITEM_VIEW_IDS对应的12个控件
+    static final int ITEM_LAYOUT = 0x7f030100;
+    static final int[] ITEM_VIEW_IDS = new int[12];
+
+    static {
+        for (int i = 0; i < ITEM_VIEW_IDS.length; i++) {
+            ITEM_VIEW_IDS[i] = 0x7f020100 + i * 7;
+        }
+    }
+
+    private BenchmarkFixtures() {
+    }
+
+    static Context newContext() {
+        return new Context() {
+            private final LayoutInflater mInflater = new Inflater(this);
+
+            @Override
+            public Object getSystemService(String name) {
+                return LAYOUT_INFLATER_SERVICE.equals(name) ? mInflater : null;
+            }
+        };
+    }
+
+    // 按布局id构造与真实布局结构相同的View树
+    static final class Inflater extends LayoutInflater {
+
+        Inflater(Context context) {
+            super(context);
+        }
+
+        @Override
+        public View inflate(int resource, ViewGroup root, boolean attachToRoot) {
+            LinearLayout layout = new LinearLayout(getContext());
+            if (resource == R.layout.layout_refresh_footer) {
+                addChild(layout, R.id.pb_loading);
+                addChild(layout, R.id.tv_loading);
+                addChild(layout, R.id.ll_end);
+                addChild(layout, R.id.ll_no_data);
+                addChild(layout, R.id.ll_error);
+            } else {
+                for (int id : ITEM_VIEW_IDS) {
+                    addChild(layout, id);
+                }
+            }
+            if (attachToRoot && root != null) {
+                root.addView(layout);
+            }
+            return layout;
+        }
+
+        private void addChild(ViewGroup parent, int id) {
+            View child = new TextView(getContext());
+            child.setId(id);
+            parent.addView(child);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new Inflater(newContext);
+        }
+    }
+
+    // 绑定时读取前几个控件，和常见的item写法一致
+    static final class StringAdapter extends LoadMoreLinearBaseAdapter<String> {
+
+        StringAdapter(Context context) {
+            super(context, ITEM_LAYOUT);
+        }
+
+        @Override
+        public void bind(ViewHolder holder, String s, int position) {
+            holder.getTextView(ITEM_VIEW_IDS[0]);
+            holder.getTextView(ITEM_VIEW_IDS[1]);
+            holder.getTextView(ITEM_VIEW_IDS[2]);
+        }
+    }
+}
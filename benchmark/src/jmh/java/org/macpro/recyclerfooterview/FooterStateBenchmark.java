@@ -0,0 +1,55 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 脚布局状态绑定：每次切换状态，以及重复绑定相同的状态
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FooterStateBenchmark {
+
+    private static final LoadingState[] STATES = {
+            LoadingState.LOADING, LoadingState.LOAD_COMPLETE, LoadingState.LOADING, LoadingState.LOAD_END
+    };
+
+    private FooterStateBinder mBinder;
+    private LoadStateMachine mStateMachine;
+    private int mIndex;
+
+    @Setup
+    public void setUp() {
+        Context context = BenchmarkFixtures.newContext();
+        mBinder = new FooterStateBinder(new BenchmarkFixtures.Inflater(context)
+                .inflate(R.layout.layout_refresh_footer, null, false));
+        mStateMachine = new LoadStateMachine();
+    }
+
+    @Benchmark
+    public void bind_changingState() {
+        mBinder.bind(STATES[mIndex++ & 3]);
+    }
+
+    @Benchmark
+    public void bind_sameState() {
+        mBinder.bind(LoadingState.LOADING);
+    }
+
+    // 状态机切换加上监听分发，不包含脚布局绑定
+    @Benchmark
+    public LoadingState stateMachine_moveTo() {
+        mStateMachine.moveTo(STATES[mIndex++ & 3]);
+        return mStateMachine.getState();
+    }
+}
@@ -0,0 +1,111 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OnLoadMoreListener每次滑动回调的判断开销：离末尾很远、进入预加载区间、停止在末尾
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoadMoreTriggerBenchmark {
+
+    private static final int ITEM_COUNT = 1000;
+
+    private RecyclerView mRecyclerView;
+    private FixedLayoutManager mLayoutManager;
+    private OnLoadMoreListener mListener;
+    private LoadStateMachine mStateMachine;
+    private int mLoadCount;
+
+    @Setup
+    public void setUp() {
+        Context context = BenchmarkFixtures.newContext();
+        mRecyclerView = new RecyclerView(context);
+        mLayoutManager = new FixedLayoutManager(context);
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mStateMachine = new LoadStateMachine();
+        mListener = new OnLoadMoreListener(mStateMachine) {
+            @Override
+            public void onLoadMore() {
+                mLoadCount++;
+            }
+        };
+        mListener.setPrefetchItemCount(5);
+    }
+
+    @Benchmark
+    public int onScrolled_farFromEnd() {
+        mLayoutManager.mItemCount = ITEM_COUNT;
+        mLayoutManager.mLastVisible = 100;
+        mListener.onScrolled(mRecyclerView, 0, 12);
+        return mLoadCount;
+    }
+
+    // 每次item数都变化，每次都会走完预加载判断并经过状态机
+    @Benchmark
+    public int onScrolled_inPrefetchWindow() {
+        mLayoutManager.mItemCount++;
+        mLayoutManager.mLastVisible = mLayoutManager.mItemCount - 3;
+        mStateMachine.moveTo(LoadingState.LOAD_COMPLETE);
+        mListener.onScrolled(mRecyclerView, 0, 12);
+        return mLoadCount;
+    }
+
+    @Benchmark
+    public int onScrollStateChanged_idleAtEnd() {
+        mLayoutManager.mItemCount = ITEM_COUNT;
+        mLayoutManager.mLastVisible = ITEM_COUNT - 1;
+        mStateMachine.moveTo(LoadingState.LOAD_COMPLETE);
+        mListener.onScrolled(mRecyclerView, 0, 12);
+        mListener.onScrollStateChanged(mRecyclerView, RecyclerView.SCROLL_STATE_IDLE);
+        return mLoadCount;
+    }
+
+    // 可见位置由基准直接指定
+    static final class FixedLayoutManager extends LinearLayoutManager {
+        int mItemCount;
+        int mLastVisible;
+
+        FixedLayoutManager(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        @Override
+        public int getChildCount() {
+            return 10;
+        }
+
+        @Override
+        public int findFirstVisibleItemPosition() {
+            return Math.max(0, mLastVisible - 9);
+        }
+
+        @Override
+        public int findLastVisibleItemPosition() {
+            return mLastVisible;
+        }
+
+        @Override
+        public int findLastCompletelyVisibleItemPosition() {
+            return mLastVisible;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.view.View;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 布局时每个位置都会调用的getItemViewType和getItemCount，覆盖有无头布局两种情况
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PositionLookupBenchmark {
+
+    private static final int DATA_SIZE = 10000;
+
+    @Param({"0", "2"})
+    public int headerCount;
+
+    private LoadMoreLinearBaseAdapter<String> mAdapter;
+
+    @Setup
+    public void setUp() {
+        Context context = BenchmarkFixtures.newContext();
+        mAdapter = new BenchmarkFixtures.StringAdapter(context);
+        List<String> items = new ArrayList<>(DATA_SIZE);
+        for (int i = 0; i < DATA_SIZE; i++) {
+            items.add("item " + i);
+        }
+        mAdapter.addData(items);
+        for (int i = 0; i < headerCount; i++) {
+            mAdapter.addHeaderView(new View(context));
+        }
+        mAdapter.addFooterView(new View(context));
+    }
+
+    // 遍历所有位置，结果为每个位置的平均耗时乘以item数
+    @Benchmark
+    public int getItemViewType_allPositions() {
+        int sum = 0;
+        int itemCount = mAdapter.getItemCount();
+        for (int position = 0; position < itemCount; position++) {
+            sum += mAdapter.getItemViewType(position);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int getItemCount() {
+        return mAdapter.getItemCount();
+    }
+}
@@ -0,0 +1,85 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.widget.LinearLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ViewHolder控件缓存：原来的HashMap双重查找、IntObjectCache，以及完整的ViewHolder.getView
+ * 每次调用查找一个item布局里的全部12个控件
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ViewCacheBenchmark {
+
+    private static final int[] IDS = BenchmarkFixtures.ITEM_VIEW_IDS;
+
+    // 是否开启AdapterMetrics，用于确认统计命中率的开销
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private Map<Integer, Object> mMap;
+    private IntObjectCache<Object> mCache;
+    private LoadMoreLinearBaseAdapter.ViewHolder mHolder;
+
+    @Setup
+    public void setUp() {
+        mMap = new HashMap<>();
+        mCache = new IntObjectCache<>();
+        for (int id : IDS) {
+            Object view = new Object();
+            mMap.put(id, view);
+            mCache.put(id, view);
+        }
+
+        Context context = BenchmarkFixtures.newContext();
+        LoadMoreLinearBaseAdapter<String> adapter = new BenchmarkFixtures.StringAdapter(context);
+        adapter.setMetrics(metrics ? new AdapterMetrics() : null);
+        adapter.addData(Collections.singletonList("item"));
+        mHolder = adapter.createViewHolder(new LinearLayout(context), BenchmarkFixtures.ITEM_LAYOUT);
+        // 绑定一次，缓存中已有全部控件
+        adapter.bindViewHolder(mHolder, 0);
+        for (int id : IDS) {
+            mHolder.getView(id);
+        }
+    }
+
+    // 原来的getView写法：containsKey + get，id超出Integer缓存范围会装箱
+    @Benchmark
+    public void hashMap(Blackhole blackhole) {
+        for (int id : IDS) {
+            if (mMap.containsKey(id)) {
+                blackhole.consume(mMap.get(id));
+            }
+        }
+    }
+
+    @Benchmark
+    public void intObjectCache(Blackhole blackhole) {
+        for (int id : IDS) {
+            blackhole.consume(mCache.get(id));
+        }
+    }
+
+    @Benchmark
+    public void viewHolderGetView(Blackhole blackhole) {
+        for (int id : IDS) {
+            blackhole.consume(mHolder.getView(id));
+        }
+    }
+}
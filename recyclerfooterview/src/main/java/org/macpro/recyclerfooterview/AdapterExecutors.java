@@ -0,0 +1,76 @@
+package org.macpro.recyclerfooterview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adapter内部共用的线程池和主线程Handler
+ */
+final class AdapterExecutors {
+
+    // 后台线程数量，diff与加载都是短任务，两个线程足够
+    private static final int BACKGROUND_THREADS = 2;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private static volatile ExecutorService sBackground;
+
+    private static final Executor sMainThread = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            sMainHandler.post(command);
+        }
+    };
+
+    private AdapterExecutors() {
+    }
+
+    // 主线程Handler
+    static Handler mainHandler() {
+        return sMainHandler;
+    }
+
+    // 把任务post到主线程执行
+    static Executor mainThread() {
+        return sMainThread;
+    }
+
+    // 是否在主线程
+    static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    // 默认的后台线程池，懒加载
+    static Executor background() {
+        if (sBackground == null) {
+            synchronized (AdapterExecutors.class) {
+                if (sBackground == null) {
+                    sBackground = Executors.newFixedThreadPool(BACKGROUND_THREADS, new ThreadFactory() {
+                        private final AtomicInteger mCount = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(final Runnable r) {
+                            Thread thread = new Thread(new Runnable() {
+                                @Override
+                                public void run() {
+                                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                    r.run();
+                                }
+                            }, "RecyclerFooterView-" + mCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        return sBackground;
+    }
+}
@@ -0,0 +1,178 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Adapter的运行指标：按viewType统计ViewHolder创建、绑定的次数和耗时分布，
+ * 脚布局的状态切换次数，以及ViewHolder.getView的缓存命中率
+ * 通过Adapter.setMetrics开启，未开启时Adapter只多一次判空；只在主线程记录和读取
+ */
+public class AdapterMetrics {
+
+    private static final LoadingState[] STATES = LoadingState.values();
+
+    private TypeMetrics[] mTypes = new TypeMetrics[4];
+    private int mTypeCount;
+    // 按LoadingState.ordinal索引的状态切换次数
+    private final long[][] mFooterTransitions = new long[STATES.length][STATES.length];
+    private long mViewCacheHits;
+    private long mViewCacheMisses;
+
+    void onViewHolderCreated(int viewType, long nanos) {
+        TypeMetrics type = getType(viewType);
+        type.mCreateLatency.record(nanos);
+    }
+
+    void onViewHolderBound(int viewType, long nanos) {
+        TypeMetrics type = getType(viewType);
+        type.mBindLatency.record(nanos);
+    }
+
+    void onFooterStateChanged(LoadingState oldState, LoadingState newState) {
+        mFooterTransitions[oldState.ordinal()][newState.ordinal()]++;
+    }
+
+    void onViewCacheLookup(boolean hit) {
+        if (hit) {
+            mViewCacheHits++;
+        } else {
+            mViewCacheMisses++;
+        }
+    }
+
+    // viewType通常只有几个，直接遍历，记录时不装箱也不分配
+    private TypeMetrics getType(int viewType) {
+        for (int i = 0; i < mTypeCount; i++) {
+            if (mTypes[i].mViewType == viewType) {
+                return mTypes[i];
+            }
+        }
+        if (mTypeCount == mTypes.length) {
+            TypeMetrics[] types = new TypeMetrics[mTypeCount * 2];
+            System.arraycopy(mTypes, 0, types, 0, mTypeCount);
+            mTypes = types;
+        }
+        TypeMetrics type = new TypeMetrics(viewType);
+        mTypes[mTypeCount++] = type;
+        return type;
+    }
+
+    // 复制当前的指标，之后的记录不会影响返回的快照
+    public Snapshot snapshot() {
+        List<TypeSnapshot> types = new ArrayList<>(mTypeCount);
+        for (int i = 0; i < mTypeCount; i++) {
+            TypeMetrics type = mTypes[i];
+            types.add(new TypeSnapshot(type.mViewType, type.mCreateLatency.copy(), type.mBindLatency.copy()));
+        }
+        long[][] transitions = new long[STATES.length][];
+        for (int i = 0; i < STATES.length; i++) {
+            transitions[i] = mFooterTransitions[i].clone();
+        }
+        return new Snapshot(Collections.unmodifiableList(types), transitions, mViewCacheHits, mViewCacheMisses);
+    }
+
+    // 清空所有指标，上报快照后调用可以得到按周期统计的数据
+    public void reset() {
+        mTypes = new TypeMetrics[4];
+        mTypeCount = 0;
+        for (long[] row : mFooterTransitions) {
+            Arrays.fill(row, 0);
+        }
+        mViewCacheHits = 0;
+        mViewCacheMisses = 0;
+    }
+
+    private static final class TypeMetrics {
+        final int mViewType;
+        final LatencyHistogram mCreateLatency = new LatencyHistogram();
+        final LatencyHistogram mBindLatency = new LatencyHistogram();
+
+        TypeMetrics(int viewType) {
+            mViewType = viewType;
+        }
+    }
+
+    // 某个viewType的指标
+    public static final class TypeSnapshot {
+        private final int mViewType;
+        private final LatencyHistogram mCreateLatency;
+        private final LatencyHistogram mBindLatency;
+
+        TypeSnapshot(int viewType, LatencyHistogram createLatency, LatencyHistogram bindLatency) {
+            mViewType = viewType;
+            mCreateLatency = createLatency;
+            mBindLatency = bindLatency;
+        }
+
+        public int getViewType() {
+            return mViewType;
+        }
+
+        public long getCreateCount() {
+            return mCreateLatency.getCount();
+        }
+
+        public long getBindCount() {
+            return mBindLatency.getCount();
+        }
+
+        public LatencyHistogram getCreateLatency() {
+            return mCreateLatency;
+        }
+
+        public LatencyHistogram getBindLatency() {
+            return mBindLatency;
+        }
+    }
+
+    public static final class Snapshot {
+        private final List<TypeSnapshot> mTypes;
+        private final long[][] mFooterTransitions;
+        private final long mViewCacheHits;
+        private final long mViewCacheMisses;
+
+        Snapshot(List<TypeSnapshot> types, long[][] footerTransitions, long viewCacheHits, long viewCacheMisses) {
+            mTypes = types;
+            mFooterTransitions = footerTransitions;
+            mViewCacheHits = viewCacheHits;
+            mViewCacheMisses = viewCacheMisses;
+        }
+
+        // 按第一次出现的顺序排列
+        public List<TypeSnapshot> getTypes() {
+            return mTypes;
+        }
+
+        // 某个viewType的指标，没有记录时返回null
+        public TypeSnapshot getType(int viewType) {
+            for (TypeSnapshot type : mTypes) {
+                if (type.getViewType() == viewType) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        // 脚布局从from切换到to的次数
+        public long getFooterTransitionCount(LoadingState from, LoadingState to) {
+            return mFooterTransitions[from.ordinal()][to.ordinal()];
+        }
+
+        public long getViewCacheHits() {
+            return mViewCacheHits;
+        }
+
+        public long getViewCacheMisses() {
+            return mViewCacheMisses;
+        }
+
+        // 控件缓存的命中率，没有查找时返回0
+        public float getViewCacheHitRatio() {
+            long total = mViewCacheHits + mViewCacheMisses;
+            return total == 0 ? 0 : (float) mViewCacheHits / total;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.macpro.recyclerfooterview;
+
+import android.os.SystemClock;
+
+/**
+ * 按加载耗时和最近的滑动速度推荐每页的数量和预加载距离
+ * 加载耗时为状态机从LOADING切换到LOAD_COMPLETE或LOAD_END的时间，速度按item数计算，越久以前的滑动权重越小
+ * 预加载距离保证加载完成前不会滑到底，每页的数量够滑两次加载的时间，都限制在设置的范围内
+ * 通过OnLoadMoreListener.setPagePolicy使用，只在主线程调用
+ */
+public class AdaptivePagePolicy implements LoadStateMachine.OnStateChangedListener {
+
+    // 还没有加载完成过时假设的加载耗时
+    private static final long DEFAULT_LATENCY_MILLIS = 500;
+    // 滑动距离的权重每过这么久减半
+    private static final long VELOCITY_HALF_LIFE_MILLIS = 1000;
+
+    private final int mMinPageSize;
+    private final int mMaxPageSize;
+    private final int mMinPrefetchDistance;
+    private final int mMaxPrefetchDistance;
+    private final Clock mClock;
+
+    // 平滑后的加载耗时，小于0表示还没有加载完成过
+    private long mLatencyMillis = -1;
+    // 本次加载开始的时间，小于0表示没有在加载
+    private long mLoadStartMillis = -1;
+    // 按时间衰减后累计滑过的item数
+    private double mRecentItems;
+    private long mRecentItemsMillis;
+
+    public AdaptivePagePolicy(int minPageSize, int maxPageSize, int minPrefetchDistance, int maxPrefetchDistance) {
+        this(minPageSize, maxPageSize, minPrefetchDistance, maxPrefetchDistance, new Clock() {
+            @Override
+            public long uptimeMillis() {
+                return SystemClock.uptimeMillis();
+            }
+        });
+    }
+
+    /**
+     * @param clock 时间来源，测试时可以传入模拟的时间
+     */
+    public AdaptivePagePolicy(int minPageSize, int maxPageSize, int minPrefetchDistance, int maxPrefetchDistance,
+                              Clock clock) {
+        if (minPageSize <= 0 || maxPageSize < minPageSize) {
+            throw new IllegalArgumentException("invalid page size bounds: " + minPageSize + ".." + maxPageSize);
+        }
+        if (minPrefetchDistance < 0 || maxPrefetchDistance < minPrefetchDistance) {
+            throw new IllegalArgumentException("invalid prefetch distance bounds: "
+                    + minPrefetchDistance + ".." + maxPrefetchDistance);
+        }
+        mMinPageSize = minPageSize;
+        mMaxPageSize = maxPageSize;
+        mMinPrefetchDistance = minPrefetchDistance;
+        mMaxPrefetchDistance = maxPrefetchDistance;
+        mClock = clock;
+    }
+
+    @Override
+    public void onStateChanged(LoadingState oldState, LoadingState newState) {
+        if (newState == LoadingState.LOADING) {
+            mLoadStartMillis = mClock.uptimeMillis();
+            return;
+        }
+        if (oldState != LoadingState.LOADING || mLoadStartMillis < 0) {
+            return;
+        }
+        // 只用成功的加载估算耗时，失败的耗时通常是超时，没有参考价值
+        if (newState == LoadingState.LOAD_COMPLETE || newState == LoadingState.LOAD_END) {
+            long latency = mClock.uptimeMillis() - mLoadStartMillis;
+            mLatencyMillis = mLatencyMillis < 0 ? latency : (mLatencyMillis + latency) / 2;
+        }
+        mLoadStartMillis = -1;
+    }
+
+    // 记录向列表末尾滑过的item数
+    public void onScrolled(float items) {
+        if (items <= 0) {
+            return;
+        }
+        long now = mClock.uptimeMillis();
+        mRecentItems = decayedItems(now) + items;
+        mRecentItemsMillis = now;
+    }
+
+    private double decayedItems(long now) {
+        if (mRecentItems == 0) {
+            return 0;
+        }
+        return mRecentItems * Math.pow(0.5, (double) (now - mRecentItemsMillis) / VELOCITY_HALF_LIFE_MILLIS);
+    }
+
+    // 最近的滑动速度，单位item每秒；停止滑动后逐渐衰减到0
+    public float getVelocityItemsPerSecond() {
+        // 按指数衰减累计的总量除以平均寿命（半衰期/ln2）就是速率
+        double meanLifeMillis = VELOCITY_HALF_LIFE_MILLIS / Math.log(2);
+        return (float) (decayedItems(mClock.uptimeMillis()) / meanLifeMillis * 1000);
+    }
+
+    // 平滑后的加载耗时，还没有加载完成过时返回默认值
+    public long getLatencyMillis() {
+        return mLatencyMillis < 0 ? DEFAULT_LATENCY_MILLIS : mLatencyMillis;
+    }
+
+    // 一次加载期间会滑过的item数
+    private double getItemsPerLoad() {
+        return getVelocityItemsPerSecond() * getLatencyMillis() / 1000.0;
+    }
+
+    // 推荐的预加载距离：最小距离加上加载期间会滑过的item数
+    public int getPrefetchDistance() {
+        long distance = mMinPrefetchDistance + (long) Math.ceil(getItemsPerLoad());
+        return (int) Math.min(distance, mMaxPrefetchDistance);
+    }
+
+    // 推荐的每页数量：够滑两次加载的时间，慢慢浏览时用最小值
+    public int getPageSize() {
+        long size = (long) Math.ceil(getItemsPerLoad() * 2);
+        return (int) Math.max(mMinPageSize, Math.min(size, mMaxPageSize));
+    }
+
+    public interface Clock {
+        long uptimeMillis();
+    }
+}
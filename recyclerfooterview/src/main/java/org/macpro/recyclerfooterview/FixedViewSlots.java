@@ -0,0 +1,112 @@
+package org.macpro.recyclerfooterview;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 头布局或脚布局的槽位，每个View分配一个保留区间内的viewType
+ * 加载更多的脚布局也是其中一项，它没有固定的View，由Adapter自己创建
+ */
+final class FixedViewSlots {
+
+    // 保留的viewType区间，头布局和脚布局各占一半，自定义的viewType不能落在这个区间
+    private static final int TYPE_BASE = Integer.MIN_VALUE;
+    private static final int TYPE_COUNT = 1 << 16;
+    static final int HEADER_TYPE_BASE = TYPE_BASE;
+    static final int FOOTER_TYPE_BASE = TYPE_BASE + TYPE_COUNT;
+    // 顶部加载指示器的viewType，紧跟在两个区间之后
+    static final int LOAD_PREVIOUS_TYPE = TYPE_BASE + TYPE_COUNT * 2;
+    // 加载更多脚布局的viewType，不会和item的viewType冲突
+    static final int LOAD_MORE_TYPE = LOAD_PREVIOUS_TYPE + 1;
+    private static final int TYPE_END = LOAD_MORE_TYPE + 1;
+
+    // 窗口模式下占位的id从这里开始，不会和头布局、脚布局的id冲突
+    static final long PLACEHOLDER_ID_BASE = ItemIdExtractor.FOOTER_ID + 1 + ((long) TYPE_END - TYPE_BASE);
+
+    private final int mTypeBase;
+    private int mNextType;
+    private final List<View> mViews = new ArrayList<>();
+    private final List<Integer> mTypes = new ArrayList<>();
+
+    FixedViewSlots(int typeBase) {
+        mTypeBase = typeBase;
+    }
+
+    // 是否是头布局或脚布局的viewType
+    static boolean isFixedViewType(int viewType) {
+        return viewType < TYPE_END;
+    }
+
+    // 头布局、脚布局的id，按viewType生成，位置变化时不变
+    static long getItemId(int viewType) {
+        return ItemIdExtractor.FOOTER_ID + 1 + ((long) viewType - TYPE_BASE);
+    }
+
+    /**
+     * 在index处添加一个View，返回分配的viewType
+     */
+    int add(int index, View view) {
+        if (view == null) {
+            throw new IllegalArgumentException("view == null");
+        }
+        if (mViews.contains(view)) {
+            throw new IllegalStateException("view has already been added");
+        }
+        int viewType = mTypeBase + mNextType;
+        mNextType = (mNextType + 1) % TYPE_COUNT;
+        mViews.add(index, view);
+        mTypes.add(index, viewType);
+        return viewType;
+    }
+
+    // 添加没有固定View的一项，如加载更多的脚布局、顶部加载指示器
+    void addSpecial(int index, int viewType) {
+        mViews.add(index, null);
+        mTypes.add(index, viewType);
+    }
+
+    // 移除View，返回原来的下标，不存在时返回-1
+    int remove(View view) {
+        int index = view == null ? -1 : mViews.indexOf(view);
+        if (index >= 0) {
+            mViews.remove(index);
+            mTypes.remove(index);
+        }
+        return index;
+    }
+
+    // 移除指定viewType的一项，返回原来的下标，不存在时返回-1
+    int removeType(int viewType) {
+        int index = indexOfType(viewType);
+        if (index >= 0) {
+            mViews.remove(index);
+            mTypes.remove(index);
+        }
+        return index;
+    }
+
+    int indexOfType(int viewType) {
+        for (int i = 0; i < mTypes.size(); i++) {
+            if (mTypes.get(i) == viewType) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 只在创建ViewHolder时查找，数量很少，直接遍历
+    View findViewByType(int viewType) {
+        int index = indexOfType(viewType);
+        return index >= 0 ? mViews.get(index) : null;
+    }
+
+    int getViewType(int index) {
+        return mTypes.get(index);
+    }
+
+    int size() {
+        return mViews.size();
+    }
+}
@@ -0,0 +1,40 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * 网格布局下让头布局、脚布局占满一行，其它位置交给原来的SpanSizeLookup
+ */
+final class FooterSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+    private final RecyclerView.Adapter<?> mAdapter;
+    private final int mFooterType;
+    private final GridLayoutManager mLayoutManager;
+    private final GridLayoutManager.SpanSizeLookup mDelegate;
+
+    FooterSpanSizeLookup(RecyclerView.Adapter<?> adapter, int footerType,
+                         GridLayoutManager layoutManager, GridLayoutManager.SpanSizeLookup delegate) {
+        mAdapter = adapter;
+        mFooterType = footerType;
+        mLayoutManager = layoutManager;
+        mDelegate = delegate;
+        // span index只和位置有关，开启缓存避免每次布局从头计算
+        setSpanIndexCacheEnabled(true);
+    }
+
+    @Override
+    public int getSpanSize(int position) {
+        int viewType = mAdapter.getItemViewType(position);
+        if (viewType == mFooterType || FixedViewSlots.isFixedViewType(viewType)) {
+            return mLayoutManager.getSpanCount();
+        }
+        return mDelegate.getSpanSize(position);
+    }
+
+    // 是否已经安装在该LayoutManager上
+    static boolean isInstalled(GridLayoutManager layoutManager, RecyclerView.Adapter<?> adapter) {
+        GridLayoutManager.SpanSizeLookup lookup = layoutManager.getSpanSizeLookup();
+        return lookup instanceof FooterSpanSizeLookup && ((FooterSpanSizeLookup) lookup).mAdapter == adapter;
+    }
+}
@@ -0,0 +1,57 @@
+package org.macpro.recyclerfooterview;
+
+import android.view.View;
+
+/**
+ * 脚布局的状态绑定，两个加载更多的Adapter共用
+ * 创建时查找一次子控件，之后只修改可见性真正变化的控件
+ */
+final class FooterStateBinder {
+
+    // 脚布局的子控件id，顺序与VISIBILITY的列一致
+    private static final int[] VIEW_IDS = {
+            R.id.pb_loading, R.id.tv_loading, R.id.ll_end, R.id.ll_no_data, R.id.ll_error
+    };
+
+    // 每种状态下各控件的可见性，行下标为LoadingState.ordinal()
+    private static final int[][] VISIBILITY = {
+            // 正在加载
+            {View.VISIBLE, View.VISIBLE, View.GONE, View.GONE, View.GONE},
+            // 加载完成
+            {View.INVISIBLE, View.INVISIBLE, View.GONE, View.GONE, View.GONE},
+            // 加载到底
+            {View.GONE, View.GONE, View.VISIBLE, View.GONE, View.GONE},
+            // 加载出错
+            {View.GONE, View.GONE, View.GONE, View.GONE, View.VISIBLE},
+            // 加载无数据
+            {View.GONE, View.GONE, View.GONE, View.VISIBLE, View.GONE},
+    };
+
+    private final View[] mViews = new View[VIEW_IDS.length];
+    // 各控件当前的可见性
+    private final int[] mApplied = new int[VIEW_IDS.length];
+    // 上次绑定的状态
+    private LoadingState mState;
+
+    FooterStateBinder(View footerView) {
+        for (int i = 0; i < VIEW_IDS.length; i++) {
+            mViews[i] = footerView.findViewById(VIEW_IDS[i]);
+            mApplied[i] = mViews[i].getVisibility();
+        }
+    }
+
+    // 绑定状态，状态没变时直接返回
+    void bind(LoadingState state) {
+        if (state == mState) {
+            return;
+        }
+        int[] visibility = VISIBILITY[state.ordinal()];
+        for (int i = 0; i < mViews.length; i++) {
+            if (mApplied[i] != visibility[i]) {
+                mViews[i].setVisibility(visibility[i]);
+                mApplied[i] = visibility[i];
+            }
+        }
+        mState = state;
+    }
+}
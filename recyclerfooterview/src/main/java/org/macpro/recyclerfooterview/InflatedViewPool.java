@@ -0,0 +1,114 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v4.view.AsyncLayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+
+/**
+ * 预先在后台线程填充好的View池，onCreateViewHolder优先从这里取，取不到再同步填充
+ * 只在主线程使用
+ */
+public class InflatedViewPool {
+
+    // 按布局id保存填充好的View
+    private final IntObjectCache<ArrayDeque<View>> mViews = new IntObjectCache<>();
+    private AsyncInflater mAsyncInflater;
+    // 每次clear递增，clear之前发出的填充结果直接丢弃
+    private int mGeneration;
+    private int mHitCount;
+    private int mMissCount;
+
+
+    public InflatedViewPool() {
+    }
+
+    // 测试时传入手动回调的填充
+    InflatedViewPool(AsyncInflater asyncInflater) {
+        mAsyncInflater = asyncInflater;
+    }
+
+    /**
+     * 在后台线程填充count个View，parent用来生成LayoutParams，不会被添加进去
+     * 一次只提交一个请求，上一个完成后再提交下一个：AsyncLayoutInflater的队列只有10个位置，
+     * 队列满时inflate会阻塞主线程
+     */
+    public void prefill(ViewGroup parent, int layoutResId, final int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (mAsyncInflater == null) {
+            final AsyncLayoutInflater inflater = new AsyncLayoutInflater(parent.getContext());
+            mAsyncInflater = new AsyncInflater() {
+                @Override
+                public void inflate(int resid, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener callback) {
+                    inflater.inflate(resid, parent, callback);
+                }
+            };
+        }
+        final int generation = mGeneration;
+        mAsyncInflater.inflate(layoutResId, parent, new AsyncLayoutInflater.OnInflateFinishedListener() {
+            // 还需要填充的数量
+            private int mRemaining = count;
+
+            @Override
+            public void onInflateFinished(View view, int resid, ViewGroup parent) {
+                if (generation != mGeneration) {
+                    // 已经clear，剩下的也不再填充
+                    return;
+                }
+                getViews(resid).add(view);
+                if (--mRemaining > 0) {
+                    mAsyncInflater.inflate(resid, parent, this);
+                }
+            }
+        });
+    }
+
+    /**
+     * 取出一个填充好的View
+     *
+     * @return 池中没有时返回null
+     */
+    public View obtain(int layoutResId) {
+        ArrayDeque<View> views = mViews.get(layoutResId);
+        View view = views != null ? views.poll() : null;
+        if (view != null) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+        }
+        return view;
+    }
+
+    // 清空池，RecyclerView解绑时调用
+    public void clear() {
+        mGeneration++;
+        mViews.clear();
+    }
+
+    // 从池中取到View的次数
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    // 池中没有、需要同步填充的次数
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    private ArrayDeque<View> getViews(int layoutResId) {
+        ArrayDeque<View> views = mViews.get(layoutResId);
+        if (views == null) {
+            views = new ArrayDeque<>();
+            mViews.put(layoutResId, views);
+        }
+        return views;
+    }
+
+    // 后台填充，默认使用AsyncLayoutInflater
+    interface AsyncInflater {
+        void inflate(int resid, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener callback);
+    }
+}
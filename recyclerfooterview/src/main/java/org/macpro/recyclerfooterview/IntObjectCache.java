@@ -0,0 +1,115 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * ViewHolder用的int为key的小型缓存，开放寻址，key不装箱
+ * 0被用作空槽标记，资源id不会为0
+ */
+final class IntObjectCache<V> {
+
+    // 默认容量，常见的item布局控件数都在8个以内
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] mKeys;
+    private Object[] mValues;
+    private int mSize;
+    // 容量减一，容量始终为2的幂
+    private int mMask;
+
+    IntObjectCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntObjectCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(4, capacity) - 1) << 1;
+        mKeys = new int[size];
+        mValues = new Object[size];
+        mMask = size - 1;
+    }
+
+    // 获取key对应的值，不存在时返回null；值本身也可能是null，需要区分时用containsKey
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) mValues[index];
+    }
+
+    // 是否存入过key，包括值为null的
+    boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    // 存入或覆盖key对应的值，key为0时忽略
+    void put(int key, V value) {
+        if (key == 0) {
+            return;
+        }
+        int index = hash(key) & mMask;
+        int current;
+        while ((current = mKeys[index]) != 0) {
+            if (current == key) {
+                mValues[index] = value;
+                return;
+            }
+            index = (index + 1) & mMask;
+        }
+        mKeys[index] = key;
+        mValues[index] = value;
+        // 装载因子不超过0.5，保证探测链很短
+        if (++mSize * 2 > mKeys.length) {
+            resize(mKeys.length << 1);
+        }
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    void clear() {
+        for (int i = 0; i < mKeys.length; i++) {
+            mKeys[i] = 0;
+            mValues[i] = null;
+        }
+        mSize = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = mKeys;
+        Object[] oldValues = mValues;
+        mKeys = new int[capacity];
+        mValues = new Object[capacity];
+        mMask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = hash(key) & mMask;
+                while (mKeys[index] != 0) {
+                    index = (index + 1) & mMask;
+                }
+                mKeys[index] = key;
+                mValues[index] = oldValues[i];
+            }
+        }
+    }
+
+    // key所在的槽位，不存在时返回-1
+    private int indexOf(int key) {
+        if (key == 0) {
+            return -1;
+        }
+        int index = hash(key) & mMask;
+        int current;
+        while ((current = mKeys[index]) != 0) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mMask;
+        }
+        return -1;
+    }
+
+    // 资源id的低位比较集中，乘法散列打散
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,16 @@
+package org.macpro.recyclerfooterview;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 磁盘缓存中单个item的编解码，在后台线程调用
+ */
+public interface ItemCodec<T> {
+
+    // 把item编码成字节
+    byte[] encode(T item) throws IOException;
+
+    // 从buffer的position读到limit解码出一个item
+    T decode(ByteBuffer buffer) throws IOException;
+}
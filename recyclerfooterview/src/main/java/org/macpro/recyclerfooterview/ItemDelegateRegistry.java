@@ -0,0 +1,138 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * item布局的注册表，按item的类或条件匹配到对应的ItemViewDelegate
+ * viewType从0开始按注册顺序分配，作为下标直接取到delegate，不会和脚布局的Integer.MAX_VALUE冲突
+ * 按类注册的匹配结果按item的实际类缓存在数组里，连续的item是同一个类时只比较一次引用，不装箱；
+ * 没有按类匹配到的item再按注册顺序判断条件，条件依赖item的内容，无法缓存
+ */
+public class ItemDelegateRegistry<T> {
+
+    // 类缓存中表示该类没有按类注册的delegate，需要判断条件
+    private static final int USE_MATCHERS = -1;
+
+    // 下标即viewType
+    private final List<ItemViewDelegate<?>> mDelegates = new ArrayList<>();
+    // 按类注册的delegate
+    private final List<Class<?>> mClasses = new ArrayList<>();
+    private final List<Integer> mClassTypes = new ArrayList<>();
+    // 按条件注册的delegate
+    private final List<Matcher<? super T>> mMatchers = new ArrayList<>();
+    private final List<Integer> mMatcherTypes = new ArrayList<>();
+    // 解析过的item实际的类和对应的viewType，一个列表里的类通常只有几种，顺序查找即可
+    private Class<?>[] mResolvedClasses = new Class<?>[4];
+    private int[] mResolvedTypes = new int[4];
+    private int mResolvedCount;
+    // 上次查找的类在mResolvedClasses中的下标
+    private int mLastResolved;
+
+
+    /**
+     * 按类注册，item是该类或其子类时使用这个delegate，先注册的优先
+     *
+     * @return 分配的viewType
+     */
+    public <S extends T> int register(Class<S> itemClass, ItemViewDelegate<S> delegate) {
+        int viewType = addDelegate(delegate);
+        mClasses.add(itemClass);
+        mClassTypes.add(viewType);
+        // 之前解析过的类可能会匹配到新注册的类
+        Arrays.fill(mResolvedClasses, 0, mResolvedCount, null);
+        mResolvedCount = 0;
+        mLastResolved = 0;
+        return viewType;
+    }
+
+    /**
+     * 按条件注册，没有按类匹配到的item依次判断条件
+     *
+     * @return 分配的viewType
+     */
+    public int register(Matcher<? super T> matcher, ItemViewDelegate<? super T> delegate) {
+        int viewType = addDelegate(delegate);
+        mMatchers.add(matcher);
+        mMatcherTypes.add(viewType);
+        return viewType;
+    }
+
+    // 获取item对应的viewType
+    public int getItemViewType(T item) {
+        Class<?> itemClass = item.getClass();
+        int resolved = getResolvedType(itemClass);
+        if (resolved != USE_MATCHERS) {
+            return resolved;
+        }
+        for (int i = 0; i < mMatchers.size(); i++) {
+            if (mMatchers.get(i).matches(item)) {
+                return mMatcherTypes.get(i);
+            }
+        }
+        throw new IllegalStateException("no ItemViewDelegate registered for " + itemClass.getName());
+    }
+
+    // 根据viewType获取delegate
+    public ItemViewDelegate<?> getDelegate(int viewType) {
+        if (viewType < 0 || viewType >= mDelegates.size()) {
+            throw new IllegalArgumentException("unknown view type: " + viewType);
+        }
+        return mDelegates.get(viewType);
+    }
+
+    // 是否有注册到该viewType的delegate，子类自己处理的viewType返回false
+    public boolean hasDelegate(int viewType) {
+        return viewType >= 0 && viewType < mDelegates.size();
+    }
+
+    public int getDelegateCount() {
+        return mDelegates.size();
+    }
+
+    private int addDelegate(ItemViewDelegate<?> delegate) {
+        if (mDelegates.size() == Integer.MAX_VALUE - 1) {
+            throw new IllegalStateException("too many view types");
+        }
+        mDelegates.add(delegate);
+        return mDelegates.size() - 1;
+    }
+
+    // 按类缓存的viewType，第一次遇到的类解析后加入缓存
+    private int getResolvedType(Class<?> itemClass) {
+        if (mResolvedClasses[mLastResolved] == itemClass) {
+            return mResolvedTypes[mLastResolved];
+        }
+        for (int i = 0; i < mResolvedCount; i++) {
+            if (mResolvedClasses[i] == itemClass) {
+                mLastResolved = i;
+                return mResolvedTypes[i];
+            }
+        }
+        if (mResolvedCount == mResolvedClasses.length) {
+            mResolvedClasses = Arrays.copyOf(mResolvedClasses, mResolvedCount * 2);
+            mResolvedTypes = Arrays.copyOf(mResolvedTypes, mResolvedCount * 2);
+        }
+        int resolved = resolveClass(itemClass);
+        mResolvedClasses[mResolvedCount] = itemClass;
+        mResolvedTypes[mResolvedCount] = resolved;
+        mLastResolved = mResolvedCount++;
+        return resolved;
+    }
+
+    private int resolveClass(Class<?> itemClass) {
+        for (int i = 0; i < mClasses.size(); i++) {
+            if (mClasses.get(i).isAssignableFrom(itemClass)) {
+                return mClassTypes.get(i);
+            }
+        }
+        return USE_MATCHERS;
+    }
+
+
+    // 按条件匹配item
+    public interface Matcher<T> {
+        boolean matches(T item);
+    }
+}
@@ -0,0 +1,23 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * submitList时用来比较新旧数据的回调，在后台线程中调用
+ * 默认使用equals判断，子类可以按id和内容分别判断
+ */
+public class ItemDiffCallback<T> {
+
+    // 是否是同一个item（通常比较id）
+    public boolean areItemsTheSame(T oldItem, T newItem) {
+        return oldItem == null ? newItem == null : oldItem.equals(newItem);
+    }
+
+    // 同一个item的内容是否没有变化
+    public boolean areContentsTheSame(T oldItem, T newItem) {
+        return oldItem == null ? newItem == null : oldItem.equals(newItem);
+    }
+
+    // 内容有变化时返回描述变化的payload，会传给Adapter的bindPartial做局部刷新；返回null表示整体重新绑定
+    public Object getChangePayload(T oldItem, T newItem) {
+        return null;
+    }
+}
@@ -0,0 +1,14 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 从item中取出稳定的id，设置后Adapter开启stable ids，
+ * 整体刷新时RecyclerView可以按id复用原来的ViewHolder并保留动画
+ * 同一份数据中的id不能重复，Long.MIN_VALUE开头的一段保留给脚布局和占位
+ */
+public interface ItemIdExtractor<T> {
+
+    // 脚布局固定使用的id
+    long FOOTER_ID = Long.MIN_VALUE;
+
+    long getItemId(T item);
+}
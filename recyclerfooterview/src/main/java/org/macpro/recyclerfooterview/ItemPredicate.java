@@ -0,0 +1,10 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 过滤条件，返回true的item会显示
+ * 会在后台线程调用，不能访问View，也不能依赖在主线程修改的状态
+ */
+public interface ItemPredicate<T> {
+
+    boolean accept(T item);
+}
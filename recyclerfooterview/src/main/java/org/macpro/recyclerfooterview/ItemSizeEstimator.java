@@ -0,0 +1,9 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 窗口模式下估算单个item占用的内存，单位由使用者决定，和预算保持一致即可
+ */
+public interface ItemSizeEstimator<T> {
+
+    long estimateSize(T item);
+}
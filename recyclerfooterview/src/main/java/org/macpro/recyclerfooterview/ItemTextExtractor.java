@@ -0,0 +1,10 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 取出item用于搜索的文本，Adapter会在后台线程按词建立索引
+ * 会在后台线程调用，不能访问View；同一个item每次返回的文本应该相同
+ */
+public interface ItemTextExtractor<T> {
+
+    CharSequence getText(T item);
+}
@@ -0,0 +1,23 @@
+package org.macpro.recyclerfooterview;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * LoadMoreLinearBase2Adapter中一种item布局的创建与绑定，注册到ItemDelegateRegistry后自动分配viewType
+ */
+public abstract class ItemViewDelegate<T> {
+
+    // 创建ViewHolder
+    public abstract LoadMoreLinearBase2Adapter.ViewHolder onCreateViewHolder(LayoutInflater inflater, ViewGroup parent);
+
+    // 绑定数据
+    public abstract void onBindViewHolder(LoadMoreLinearBase2Adapter.ViewHolder holder, T t, int position);
+
+    // 局部刷新，默认整体重新绑定
+    public void onBindViewHolder(LoadMoreLinearBase2Adapter.ViewHolder holder, T t, int position, List<Object> payloads) {
+        onBindViewHolder(holder, t, position);
+    }
+}
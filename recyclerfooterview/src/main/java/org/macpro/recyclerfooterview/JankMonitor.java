@@ -0,0 +1,175 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.Choreographer;
+
+/**
+ * 滑动卡顿监控，和OnLoadMoreListener一起添加到RecyclerView上
+ * 从开始滑动到停止为一次会话，通过Choreographer统计每帧的间隔，超过阈值的帧记为慢帧，
+ * 并标记这一帧里Adapter做了什么：切换加载状态、添加数据或创建ViewHolder
+ * Adapter需要通过setJankMonitor关联，会话结束时回调OnSessionFinishedListener
+ */
+public class JankMonitor extends RecyclerView.OnScrollListener implements Choreographer.FrameCallback {
+
+    // 切换了加载状态
+    public static final int EVENT_LOAD_STATE = 1;
+    // 添加了一批数据
+    public static final int EVENT_ADD_DATA = 1 << 1;
+    // 创建了ViewHolder
+    public static final int EVENT_CREATE_VIEW = 1 << 2;
+
+    // 默认按60Hz计算
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+
+    private final OnSessionFinishedListener mListener;
+    private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    // 当前的会话，没有在滑动时为空
+    private Session mSession;
+    private long mLastFrameTimeNanos;
+    // 上一帧之后发生的事件
+    private int mPendingEvents;
+
+    public JankMonitor(OnSessionFinishedListener listener) {
+        mListener = listener;
+    }
+
+    // 设置屏幕的帧间隔，高刷新率的屏幕需要设置，间隔超过1.5帧记为慢帧
+    public void setFrameIntervalNanos(long frameIntervalNanos) {
+        mFrameIntervalNanos = frameIntervalNanos;
+    }
+
+    /**
+     * 记录Adapter的事件，由Adapter调用，归到下一次帧回调统计的那一帧
+     */
+    public void markEvent(int event) {
+        mPendingEvents |= event;
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        super.onScrollStateChanged(recyclerView, newState);
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            finishSession();
+        } else if (mSession == null) {
+            mSession = new Session(mFrameIntervalNanos);
+            mLastFrameTimeNanos = 0;
+            mPendingEvents = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (mSession == null) {
+            return;
+        }
+        if (mLastFrameTimeNanos != 0) {
+            mSession.onFrame(frameTimeNanos - mLastFrameTimeNanos, mPendingEvents);
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        mPendingEvents = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    // 停止滑动时结束会话，也可以在页面退出时主动调用
+    public void finishSession() {
+        Session session = mSession;
+        if (session == null) {
+            return;
+        }
+        mSession = null;
+        Choreographer.getInstance().removeFrameCallback(this);
+        if (mListener != null && session.getFrameCount() > 0) {
+            mListener.onSessionFinished(session);
+        }
+    }
+
+    public interface OnSessionFinishedListener {
+        void onSessionFinished(Session session);
+    }
+
+    /**
+     * 一次滑动会话的统计
+     */
+    public static final class Session {
+
+        private final long mFrameIntervalNanos;
+        private final long mSlowThresholdNanos;
+        private int mFrameCount;
+        private int mSlowFrameCount;
+        private int mDroppedFrameCount;
+        private long mDurationNanos;
+        private long mWorstFrameNanos;
+        // 按事件位索引的慢帧数
+        private final int[] mSlowFramesByEvent = new int[3];
+        private int mUntaggedSlowFrameCount;
+
+        Session(long frameIntervalNanos) {
+            mFrameIntervalNanos = frameIntervalNanos;
+            mSlowThresholdNanos = frameIntervalNanos + frameIntervalNanos / 2;
+        }
+
+        // 记录一帧，intervalNanos为和上一帧的间隔，events为这一帧里发生的事件
+        void onFrame(long intervalNanos, int events) {
+            mFrameCount++;
+            mDurationNanos += intervalNanos;
+            if (intervalNanos > mWorstFrameNanos) {
+                mWorstFrameNanos = intervalNanos;
+            }
+            if (intervalNanos <= mSlowThresholdNanos) {
+                return;
+            }
+            mSlowFrameCount++;
+            // 按四舍五入计算错过了几次vsync
+            mDroppedFrameCount += (int) ((intervalNanos + mFrameIntervalNanos / 2) / mFrameIntervalNanos) - 1;
+            if (events == 0) {
+                mUntaggedSlowFrameCount++;
+                return;
+            }
+            for (int i = 0; i < mSlowFramesByEvent.length; i++) {
+                if ((events & (1 << i)) != 0) {
+                    mSlowFramesByEvent[i]++;
+                }
+            }
+        }
+
+        public int getFrameCount() {
+            return mFrameCount;
+        }
+
+        public int getSlowFrameCount() {
+            return mSlowFrameCount;
+        }
+
+        // 慢帧一共错过的帧数
+        public int getDroppedFrameCount() {
+            return mDroppedFrameCount;
+        }
+
+        public long getDurationNanos() {
+            return mDurationNanos;
+        }
+
+        public long getWorstFrameNanos() {
+            return mWorstFrameNanos;
+        }
+
+        /**
+         * 发生了某个事件的慢帧数，一帧里有多个事件时每个事件都会计数
+         *
+         * @param event EVENT_LOAD_STATE、EVENT_ADD_DATA或EVENT_CREATE_VIEW，只能是其中一个，不能组合
+         */
+        public int getSlowFrameCount(int event) {
+            int index = Integer.numberOfTrailingZeros(event);
+            if (Integer.bitCount(event) != 1 || index >= mSlowFramesByEvent.length) {
+                throw new IllegalArgumentException("not a single event: " + event);
+            }
+            return mSlowFramesByEvent[index];
+        }
+
+        // 没有任何Adapter事件的慢帧数，卡顿来自其它地方
+        public int getUntaggedSlowFrameCount() {
+            return mUntaggedSlowFrameCount;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 按2的幂划分的耗时分布，单位微秒
+ * 第0个区间为小于1微秒，第i个区间为[2^(i-1), 2^i)微秒，最后一个区间包含所有更大的值
+ */
+public final class LatencyHistogram {
+
+    // 最后一个区间的下限约为33毫秒，超过两帧的耗时都归到这里
+    public static final int BUCKET_COUNT = 17;
+
+    private final long[] mBuckets = new long[BUCKET_COUNT];
+    private long mCount;
+    private long mTotalNanos;
+    private long mMaxNanos;
+
+    void record(long nanos) {
+        mBuckets[bucketOf(nanos)]++;
+        mCount++;
+        mTotalNanos += nanos;
+        if (nanos > mMaxNanos) {
+            mMaxNanos = nanos;
+        }
+    }
+
+    static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(mBuckets, 0, copy.mBuckets, 0, BUCKET_COUNT);
+        copy.mCount = mCount;
+        copy.mTotalNanos = mTotalNanos;
+        copy.mMaxNanos = mMaxNanos;
+        return copy;
+    }
+
+    // 第index个区间的记录数
+    public long getBucket(int index) {
+        return mBuckets[index];
+    }
+
+    // 第index个区间的上限（不包含），最后一个区间返回Long.MAX_VALUE
+    public static long getBucketUpperBoundMicros(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << index;
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public long getTotalNanos() {
+        return mTotalNanos;
+    }
+
+    public long getMaxNanos() {
+        return mMaxNanos;
+    }
+
+    public long getMeanNanos() {
+        return mCount == 0 ? 0 : mTotalNanos / mCount;
+    }
+
+    /**
+     * 估算分位数，返回所在区间的上限，没有记录时返回0
+     *
+     * @param percentile 0到100之间
+     */
+    public long getPercentileMicros(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(mCount * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mBuckets[i];
+            if (seen >= target && seen > 0) {
+                return getBucketUpperBoundMicros(i);
+            }
+        }
+        return getBucketUpperBoundMicros(BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,101 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.DiffUtil;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 在后台线程计算新旧数据的差异，在主线程回调结果
+ * 每次提交都会递增generation，计算完成时如果已经有更新的提交，则丢弃该结果
+ */
+final class ListDiffer<T> {
+
+    interface Callback<T> {
+        // 主线程回调，newList为计算时使用的新数据
+        void onDiffCalculated(List<T> newList, DiffUtil.DiffResult result);
+    }
+
+    private final Callback<T> mCallback;
+    private ItemDiffCallback<T> mItemCallback = new ItemDiffCallback<>();
+    private Executor mExecutor;
+    // 最近一次提交的代数，只在主线程读写
+    private int mMaxScheduledGeneration;
+    // 是否有尚未应用的diff
+    private boolean mPending;
+
+    ListDiffer(Callback<T> callback) {
+        mCallback = callback;
+    }
+
+    void setItemCallback(ItemDiffCallback<T> itemCallback) {
+        mItemCallback = itemCallback;
+    }
+
+    ItemDiffCallback<T> getItemCallback() {
+        return mItemCallback;
+    }
+
+    void setExecutor(Executor executor) {
+        mExecutor = executor;
+    }
+
+    // 提交新旧数据，两份数据在计算期间都不能被修改
+    void submit(final List<T> oldList, final List<T> newList) {
+        final int runGeneration = ++mMaxScheduledGeneration;
+        mPending = true;
+        final ItemDiffCallback<T> itemCallback = mItemCallback;
+        Executor executor = mExecutor != null ? mExecutor : AdapterExecutors.background();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return itemCallback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return itemCallback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                        return itemCallback.getChangePayload(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+                });
+                AdapterExecutors.mainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (runGeneration == mMaxScheduledGeneration) {
+                            mPending = false;
+                            mCallback.onDiffCalculated(newList, result);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // 作废正在计算的diff，数据被直接修改时调用
+    void cancel() {
+        mMaxScheduledGeneration++;
+        mPending = false;
+    }
+
+    // 是否有正在计算、尚未应用的diff
+    boolean isPending() {
+        return mPending;
+    }
+}
@@ -0,0 +1,315 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.BatchingListUpdateCallback;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapter的过滤模式：保留未过滤的完整数据，在后台线程按搜索词和过滤条件计算结果，在主线程替换显示的数据
+ * 每次提交都会递增generation，后台计算发现已经有更新的提交时提前结束，结果也会被丢弃
+ * 完整数据只追加时按下标对比通知变化，被替换或在前面插入后用diff通知；除后台计算外都只在主线程调用
+ */
+final class ListFilter<T> {
+
+    interface Target<T> {
+        // 当前显示的数据，过滤结果会直接替换其中的内容
+        List<T> getData();
+
+        // 完整数据被替换后，用来对比新旧结果
+        ItemDiffCallback<T> getItemCallback();
+
+        ListUpdateCallback getUpdateCallback();
+
+        // 过滤被清除，已经显示完整数据
+        void onCleared();
+    }
+
+    // 后台计算时每处理这么多item检查一次是否已被取消
+    private static final int CANCEL_CHECK_INTERVAL = 256;
+
+    private final Target<T> mTarget;
+    // 发布结果的主线程
+    private final Executor mMainExecutor;
+    private Executor mExecutor;
+    private ItemTextExtractor<T> mTextExtractor;
+    private List<String> mQueryTokens = Collections.emptyList();
+    private ItemPredicate<T> mPredicate;
+
+    // 未过滤的完整数据，没有在过滤时为空
+    private List<T> mSource;
+    // 当前显示的item在mSource中的下标，升序；完整数据被替换后为空，下次结果用diff通知
+    private int[] mShownIndices;
+    // mSource的搜索索引，第一次按搜索词过滤时在后台建立
+    private TokenIndex mIndex;
+    // 最近一次提交的代数，后台线程读取
+    private volatile int mGeneration;
+
+    ListFilter(Target<T> target) {
+        this(target, null);
+    }
+
+    ListFilter(Target<T> target, Executor mainExecutor) {
+        mTarget = target;
+        mMainExecutor = mainExecutor != null ? mainExecutor : AdapterExecutors.mainThread();
+    }
+
+    void setExecutor(Executor executor) {
+        mExecutor = executor;
+    }
+
+    // 修改后重新建立索引
+    void setTextExtractor(ItemTextExtractor<T> textExtractor) {
+        mTextExtractor = textExtractor;
+        mIndex = null;
+    }
+
+    void setQuery(CharSequence query) {
+        List<String> tokens = query == null ? Collections.<String>emptyList() : TokenIndex.tokenize(query);
+        if (!tokens.isEmpty() && mTextExtractor == null) {
+            throw new IllegalStateException("call setFilterTextExtractor() first");
+        }
+        mQueryTokens = tokens;
+    }
+
+    void setPredicate(ItemPredicate<T> predicate) {
+        mPredicate = predicate;
+    }
+
+    // 是否设置了搜索词或过滤条件
+    boolean isActive() {
+        return !mQueryTokens.isEmpty() || mPredicate != null;
+    }
+
+    // 是否正在显示过滤结果，此时完整数据保存在这里
+    boolean isFiltering() {
+        return mSource != null;
+    }
+
+    List<T> getSource() {
+        return mSource;
+    }
+
+    // 按当前的搜索词和过滤条件重新过滤，都为空时清除过滤
+    void update() {
+        if (!isActive()) {
+            clear();
+            return;
+        }
+        if (mSource == null) {
+            mSource = new ArrayList<>(mTarget.getData());
+            mShownIndices = identity(mSource.size());
+        }
+        submit();
+    }
+
+    // 过滤时追加数据，已有的下标不变
+    void appendSource(List<T> data) {
+        mSource.addAll(data);
+        submit();
+    }
+
+    // 过滤时替换完整数据，之前的下标和索引都不再有效
+    void replaceSource(List<T> data) {
+        mSource = new ArrayList<>(data);
+        mShownIndices = null;
+        mIndex = null;
+        submit();
+    }
+
+    // 清除过滤，直接显示完整数据，不需要等后台计算
+    void clear() {
+        mQueryTokens = Collections.emptyList();
+        mPredicate = null;
+        if (mSource == null) {
+            return;
+        }
+        mGeneration++;
+        List<T> data = mTarget.getData();
+        int oldSize = data.size();
+        data.clear();
+        data.addAll(mSource);
+        ListUpdateCallback callback = mTarget.getUpdateCallback();
+        if (mShownIndices != null) {
+            dispatchChanges(mShownIndices, identity(mSource.size()), callback);
+        } else {
+            // 完整数据刚被替换，还没有过滤结果，无法按下标对比，整体替换
+            if (oldSize > 0) {
+                callback.onRemoved(0, oldSize);
+            }
+            if (!data.isEmpty()) {
+                callback.onInserted(0, data.size());
+            }
+        }
+        mSource = null;
+        mShownIndices = null;
+        mIndex = null;
+        mTarget.onCleared();
+    }
+
+    // 丢弃过滤的状态和完整数据，不通知变化，用于清空数据
+    void reset() {
+        mGeneration++;
+        mQueryTokens = Collections.emptyList();
+        mPredicate = null;
+        mSource = null;
+        mShownIndices = null;
+        mIndex = null;
+    }
+
+    private void submit() {
+        final int runGeneration = ++mGeneration;
+        final List<T> source = new ArrayList<>(mSource);
+        final List<String> queryTokens = mQueryTokens;
+        final ItemPredicate<T> predicate = mPredicate;
+        final ItemTextExtractor<T> textExtractor = mTextExtractor;
+        if (!queryTokens.isEmpty() && mIndex == null) {
+            mIndex = new TokenIndex();
+        }
+        final TokenIndex index = queryTokens.isEmpty() ? null : mIndex;
+        // 完整数据被替换后，拿当前显示的数据和新结果做diff
+        final List<T> oldShown = mShownIndices == null ? new ArrayList<>(mTarget.getData()) : null;
+        final ItemDiffCallback<T> itemCallback = mTarget.getItemCallback();
+        Executor executor = mExecutor != null ? mExecutor : AdapterExecutors.background();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final int[] indices = filter(runGeneration, source, queryTokens, predicate, textExtractor, index);
+                if (indices == null) {
+                    return;
+                }
+                final List<T> newShown = new ArrayList<>(indices.length);
+                for (int i = 0; i < indices.length; i++) {
+                    newShown.add(source.get(indices[i]));
+                }
+                final DiffUtil.DiffResult result = oldShown == null ? null
+                        : calculateDiff(oldShown, newShown, itemCallback);
+                mMainExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (runGeneration == mGeneration) {
+                            publish(indices, newShown, result);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    // 后台线程计算通过的下标，被取消时返回null
+    private int[] filter(int runGeneration, List<T> source, List<String> queryTokens,
+                         ItemPredicate<T> predicate, ItemTextExtractor<T> textExtractor, TokenIndex index) {
+        int size = source.size();
+        BitSet candidates = null;
+        if (index != null) {
+            synchronized (index) {
+                // 只索引新追加的item，之前的提交已经建立过的部分直接复用
+                for (int i = index.size(); i < size; i++) {
+                    if (i % CANCEL_CHECK_INTERVAL == 0 && runGeneration != mGeneration) {
+                        return null;
+                    }
+                    index.add(textExtractor.getText(source.get(i)));
+                }
+                candidates = index.query(queryTokens, size);
+            }
+        }
+        int[] indices = new int[candidates == null ? size : candidates.cardinality()];
+        int count = 0;
+        int checked = 0;
+        int i = candidates == null ? 0 : candidates.nextSetBit(0);
+        while (i >= 0 && i < size) {
+            if (++checked % CANCEL_CHECK_INTERVAL == 0 && runGeneration != mGeneration) {
+                return null;
+            }
+            if (predicate == null || predicate.accept(source.get(i))) {
+                indices[count++] = i;
+            }
+            i = candidates == null ? i + 1 : candidates.nextSetBit(i + 1);
+        }
+        return count == indices.length ? indices : Arrays.copyOf(indices, count);
+    }
+
+    private void publish(int[] indices, List<T> newShown, DiffUtil.DiffResult result) {
+        List<T> data = mTarget.getData();
+        data.clear();
+        data.addAll(newShown);
+        ListUpdateCallback callback = mTarget.getUpdateCallback();
+        if (result != null) {
+            result.dispatchUpdatesTo(callback);
+        } else {
+            dispatchChanges(mShownIndices, indices, callback);
+        }
+        mShownIndices = indices;
+    }
+
+    /**
+     * 对比同一份完整数据上的两个过滤结果，只通知被移除和新加入的区间
+     * 两个结果都是升序的下标，同时遍历一次即可，连续的变化会合并成一次通知
+     */
+    static void dispatchChanges(int[] oldIndices, int[] newIndices, ListUpdateCallback callback) {
+        BatchingListUpdateCallback batching = new BatchingListUpdateCallback(callback);
+        int position = 0;
+        int i = 0;
+        int j = 0;
+        while (i < oldIndices.length || j < newIndices.length) {
+            if (j == newIndices.length || (i < oldIndices.length && oldIndices[i] < newIndices[j])) {
+                // 只在旧结果中，移除后后面的item前移，position不变
+                batching.onRemoved(position, 1);
+                i++;
+            } else if (i == oldIndices.length || newIndices[j] < oldIndices[i]) {
+                batching.onInserted(position, 1);
+                position++;
+                j++;
+            } else {
+                position++;
+                i++;
+                j++;
+            }
+        }
+        batching.dispatchLastEvent();
+    }
+
+    private static int[] identity(int size) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    private static <T> DiffUtil.DiffResult calculateDiff(final List<T> oldList, final List<T> newList,
+                                                         final ItemDiffCallback<T> itemCallback) {
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return itemCallback.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                return itemCallback.getChangePayload(oldList.get(oldItemPosition), newList.get(newItemPosition));
+            }
+        });
+    }
+}
@@ -1,7 +1,11 @@
 package org.macpro.recyclerfooterview;
 
 import android.content.Context;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -16,9 +20,8 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Created by Konfyt on 2016/9/14.
@@ -31,40 +34,144 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
     private LayoutInflater mInflater;
     // Attach的RecyclerView
     private RecyclerView mRecyclerView;
+    // 加载状态变化后待刷新的脚布局和顶部加载指示器
+    private boolean mFooterChanged;
+    private boolean mLoadPreviousChanged;
+    private boolean mStateViewsChangedScheduled;
     // 上下文对象
     private Context mContext;
     // item的点击事件
     private OnItemClickListener mListener;
     // error的点击事件
     private OnFooterErrorListener mErrorListener;
+    // submitList使用的后台diff
+    private ListDiffer<T> mDiffer;
+    // 共享的ViewHolder池，未设置时为空
+    private TunableViewPool mViewHolderPool;
+    // item的id，未设置时不开启stable ids
+    private ItemIdExtractor<T> mIdExtractor;
+    // item布局的注册表，未注册时为空
+    private ItemDelegateRegistry<T> mDelegateRegistry;
+    // diff计算期间追加的数据
+    private final List<T> mPendingAppends = new ArrayList<>();
+    // diff计算期间插入到最前面的数据
+    private final List<T> mPendingPrepends = new ArrayList<>();
+    // 顶部加载指示器的点击事件
+    private OnFooterErrorListener mLoadPreviousErrorListener;
+    // 运行指标，未开启时为空
+    private AdapterMetrics mMetrics;
+    // 卡顿监控，未关联时为空
+    private JankMonitor mJankMonitor;
+    // 过滤模式，未使用时为空
+    private ListFilter<T> mFilter;
+    // 任意线程提交的修改，每帧合并应用一次
+    private final MutationBatcher<T> mMutationBatcher = new MutationBatcher<>(new MutationBatcher.Target<T>() {
+        @Override
+        public boolean isReady() {
+            // 过滤时显示的是过滤结果，等清除过滤后再修改
+            return (mDiffer == null || !mDiffer.isPending()) && !isFiltering();
+        }
 
+        @Override
+        public List<T> getData() {
+            return mDatas;
+        }
 
-    // 脚布局
-    private final int TYPE_FOOTER = Integer.MAX_VALUE;
+        @Override
+        public ItemDiffCallback<T> getItemCallback() {
+            return getDiffer().getItemCallback();
+        }
 
+        @Override
+        public ListUpdateCallback getUpdateCallback() {
+            return new OffsetListUpdateCallback(LoadMoreLinearBase2Adapter.this, mHeaders.size());
+        }
 
-    // 当前加载状态，默认为加载完成
-    private int loadState = 2;
+        @Override
+        public SortedOrder<T> getSortedOrder() {
+            return null;
+        }
+    });
+    // 头布局
+    private final FixedViewSlots mHeaders = new FixedViewSlots(FixedViewSlots.HEADER_TYPE_BASE);
+    // 脚布局，加载更多的脚布局也是其中一项
+    private final FixedViewSlots mFooters = new FixedViewSlots(FixedViewSlots.FOOTER_TYPE_BASE);
 
 
-    // 正在加载
-    private final int LOADING = 1;
-    // 加载完成
-    private final int LOAD_COMPLETE = 2;
-    // 加载到底
-    private final int LOAD_END = 3;
-    // 加载出错
-    private final int LOAD_ERROR = 4;
-    // 加载无数据
-    private final int LOAD_NODATA = 5;
+    // 脚布局
+    private final int TYPE_FOOTER = Integer.MAX_VALUE;
+
+
+    // 加载状态机，默认为加载完成
+    private final LoadStateMachine mLoadStateMachine = new LoadStateMachine();
+    // 顶部加载更早数据的状态机
+    private final LoadStateMachine mLoadPreviousStateMachine = new LoadStateMachine();
 
 
     public LoadMoreLinearBase2Adapter(Context context) {
         mInflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
         mDatas = new ArrayList<>();
         mContext = context;
+        mFooters.addSpecial(0, TYPE_FOOTER);
+        mLoadStateMachine.addOnStateChangedListener(new LoadStateMachine.OnStateChangedListener() {
+            @Override
+            public void onStateChanged(LoadingState oldState, LoadingState newState) {
+                if (mMetrics != null) {
+                    mMetrics.onFooterStateChanged(oldState, newState);
+                }
+                if (mJankMonitor != null) {
+                    mJankMonitor.markEvent(JankMonitor.EVENT_LOAD_STATE);
+                }
+                // 状态变化只影响脚布局
+                mFooterChanged = true;
+                scheduleStateViewsChanged();
+            }
+        });
+        mLoadPreviousStateMachine.addOnStateChangedListener(new LoadStateMachine.OnStateChangedListener() {
+            @Override
+            public void onStateChanged(LoadingState oldState, LoadingState newState) {
+                // 状态变化只影响顶部加载指示器
+                mLoadPreviousChanged = true;
+                scheduleStateViewsChanged();
+            }
+        });
     }
 
+    /**
+     * 状态变化通常发生在滑动回调里，此时RecyclerView还在滚动或布局，放到下一个消息里再刷新脚布局和顶部加载指示器
+     * 未关联RecyclerView时直接刷新
+     */
+    private void scheduleStateViewsChanged() {
+        if (mRecyclerView == null) {
+            mStateViewsChangedRunnable.run();
+        } else if (!mStateViewsChangedScheduled) {
+            mStateViewsChangedScheduled = true;
+            AdapterExecutors.mainHandler().post(mStateViewsChangedRunnable);
+        }
+    }
+
+    private final Runnable mStateViewsChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mStateViewsChangedScheduled = false;
+            // 执行时再取位置，期间数据或头布局可能已经变化
+            if (mFooterChanged) {
+                mFooterChanged = false;
+                int footerPosition = getFooterPosition();
+                if (footerPosition != RecyclerView.NO_POSITION) {
+                    notifyItemChanged(footerPosition);
+                }
+            }
+            if (mLoadPreviousChanged) {
+                mLoadPreviousChanged = false;
+                int index = mHeaders.indexOfType(FixedViewSlots.LOAD_PREVIOUS_TYPE);
+                if (index >= 0) {
+                    notifyItemChanged(index);
+                }
+            }
+        }
+    };
+
 
     public LoadMoreLinearBase2Adapter(Context context, List<T> list) {
         this(context);
@@ -74,32 +181,236 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
 
     // 添加数据源
     public void addData(List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (isFiltering()) {
+            // 过滤时追加到完整数据，重新过滤后再显示
+            mFilter.appendSource(data);
+            return;
+        }
+        if (mDiffer != null && mDiffer.isPending()) {
+            // 正在diff时追加的数据，等diff应用后再添加
+            mPendingAppends.addAll(data);
+            return;
+        }
+        int positionStart = mDatas.size();
         mDatas.addAll(data);
-        notifyDataSetChanged();
+        if (mJankMonitor != null) {
+            mJankMonitor.markEvent(JankMonitor.EVENT_ADD_DATA);
+        }
+        // 只通知新增的区间，已显示的item不需要重新绑定
+        notifyItemRangeInserted(mHeaders.size() + positionStart, data.size());
     }
 
+    /**
+     * 在数据最前面插入，用于加载更早的数据
+     * 只有头布局可见时会保持第一条数据在屏幕上的位置，新数据出现在它的上方，不会跳动
+     */
+    public void prependData(List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (mDiffer != null && mDiffer.isPending()) {
+            // 正在diff时插入的数据，等diff应用后再插入，后插入的在更前面
+            mPendingPrepends.addAll(0, data);
+            return;
+        }
+        if (isFiltering()) {
+            // 过滤时插入到完整数据前面，已有的下标都后移，重新过滤后用diff通知
+            List<T> source = new ArrayList<>(data);
+            source.addAll(mFilter.getSource());
+            mFilter.replaceSource(source);
+            return;
+        }
+        mDatas.addAll(0, data);
+        if (mJankMonitor != null) {
+            mJankMonitor.markEvent(JankMonitor.EVENT_ADD_DATA);
+        }
+        ScrollAnchor.notifyPrepended(this, mRecyclerView, mHeaders.size(), data.size());
+    }
+
+    // 以下方法可以在任意线程调用，修改会排队到下一帧开始时按顺序应用，同一帧内的修改只触发一次布局
+    // 正在diff时会等diff应用后再修改，过滤时等清除过滤后再修改
+
+    // 在最后追加数据
+    public void postAppend(List<T> data) {
+        mMutationBatcher.append(data);
+    }
+
+    // 在数据的position处插入，应用时超出范围则插入到最后
+    public void postInsert(int position, T item) {
+        mMutationBatcher.insert(position, item);
+    }
+
+    // 删除同一个item，通过ItemDiffCallback.areItemsTheSame查找
+    public void postRemove(T item) {
+        mMutationBatcher.remove(item);
+    }
+
+    // 用新的item替换同一个item，内容有变化时按getChangePayload局部刷新
+    public void postUpdate(T item) {
+        mMutationBatcher.update(item);
+    }
+
+    // 依次为头布局、数据、脚布局，按各段的数量直接计算，不需要遍历
     @Override
     public int getItemViewType(int position) {
-        // 最后一个item设置为FooterView
-        if (position == mDatas.size()) {
-            return TYPE_FOOTER;
+        int headerCount = mHeaders.size();
+        if (position < headerCount) {
+            return mHeaders.getViewType(position);
+        }
+        int dataPosition = position - headerCount;
+        if (dataPosition >= mDatas.size()) {
+            return mFooters.getViewType(dataPosition - mDatas.size());
+        }
+        int viewType = getCustomItemViewType(dataPosition);
+        if (viewType == TYPE_FOOTER) {
+            throw new IllegalStateException("view type Integer.MAX_VALUE is reserved for the footer");
+        }
+        if (FixedViewSlots.isFixedViewType(viewType)) {
+            throw new IllegalStateException("view type " + viewType + " is reserved for header and footer views");
+        }
+        return viewType;
+    }
+
+    // 多布局的ViewType，position为数据的位置，默认由注册的ItemViewDelegate决定
+    public int getCustomItemViewType(int position) {
+        return requireDelegateRegistry().getItemViewType(mDatas.get(position));
+    }
+
+    // 加载更多的脚布局所在的位置，关闭时返回NO_POSITION
+    private int getFooterPosition() {
+        int index = mFooters.indexOfType(TYPE_FOOTER);
+        return index < 0 ? RecyclerView.NO_POSITION : mHeaders.size() + mDatas.size() + index;
+    }
+
+    // Adapter中的位置转换为数据的位置，头布局、脚布局返回NO_POSITION
+    public int getDataPosition(int adapterPosition) {
+        int position = adapterPosition - mHeaders.size();
+        return position >= 0 && position < mDatas.size() ? position : RecyclerView.NO_POSITION;
+    }
+
+    // 头布局的数量，也是第一条数据在Adapter中的位置
+    public int getHeaderCount() {
+        return mHeaders.size();
+    }
+
+    // 脚布局的数量，包括加载更多的脚布局
+    public int getFooterCount() {
+        return mFooters.size();
+    }
+
+    // 添加头布局，头布局占满一行，内容由调用方维护
+    public void addHeaderView(View view) {
+        int index = mHeaders.size();
+        mHeaders.add(index, view);
+        notifyItemInserted(index);
+    }
+
+    public void removeHeaderView(View view) {
+        int index = mHeaders.remove(view);
+        if (index >= 0) {
+            notifyItemRemoved(index);
+        }
+    }
+
+    // 添加脚布局，位于加载更多的脚布局之前
+    public void addFooterView(View view) {
+        int loadMoreIndex = mFooters.indexOfType(TYPE_FOOTER);
+        int index = loadMoreIndex < 0 ? mFooters.size() : loadMoreIndex;
+        mFooters.add(index, view);
+        notifyItemInserted(mHeaders.size() + mDatas.size() + index);
+    }
+
+    public void removeFooterView(View view) {
+        int index = mFooters.remove(view);
+        if (index >= 0) {
+            notifyItemRemoved(mHeaders.size() + mDatas.size() + index);
+        }
+    }
+
+    // 设置是否在最顶部显示加载更早数据的指示器，状态由getLoadPreviousStateMachine控制
+    public void setLoadPreviousEnabled(boolean enabled) {
+        int index = mHeaders.indexOfType(FixedViewSlots.LOAD_PREVIOUS_TYPE);
+        if (enabled == (index >= 0)) {
+            return;
+        }
+        if (enabled) {
+            mHeaders.addSpecial(0, FixedViewSlots.LOAD_PREVIOUS_TYPE);
+            notifyItemInserted(0);
         } else {
-            return getCustomItemViewType(position);
+            mHeaders.removeType(FixedViewSlots.LOAD_PREVIOUS_TYPE);
+            notifyItemRemoved(index);
         }
     }
 
-    // 多布局的ViewType
-    public abstract int getCustomItemViewType(int position);
+    // 设置是否显示加载更多的脚布局，默认显示在所有脚布局的最后
+    public void setLoadMoreFooterEnabled(boolean enabled) {
+        int index = mFooters.indexOfType(TYPE_FOOTER);
+        if (enabled == (index >= 0)) {
+            return;
+        }
+        if (enabled) {
+            mFooters.addSpecial(mFooters.size(), TYPE_FOOTER);
+            notifyItemInserted(getFooterPosition());
+        } else {
+            mFooters.removeType(TYPE_FOOTER);
+            notifyItemRemoved(mHeaders.size() + mDatas.size() + index);
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (mIdExtractor == null) {
+            return RecyclerView.NO_ID;
+        }
+        int viewType = getItemViewType(position);
+        if (viewType == TYPE_FOOTER) {
+            return ItemIdExtractor.FOOTER_ID;
+        }
+        if (FixedViewSlots.isFixedViewType(viewType)) {
+            return FixedViewSlots.getItemId(viewType);
+        }
+        return mIdExtractor.getItemId(mDatas.get(position - mHeaders.size()));
+    }
+
+    /**
+     * 设置item的id，开启stable ids，需要在setAdapter之前调用
+     */
+    public void setItemIdExtractor(ItemIdExtractor<T> extractor) {
+        mIdExtractor = extractor;
+        setHasStableIds(extractor != null);
+    }
 
-    // 获取item的总数量(数据源+脚布局)
+    // 获取item的总数量(头布局+数据源+脚布局)
     @Override
     public int getItemCount() {
-        return mDatas.size() + 1;
+        return mHeaders.size() + mDatas.size() + mFooters.size();
     }
 
     // 创建ViewHolder
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        if (mJankMonitor != null) {
+            mJankMonitor.markEvent(JankMonitor.EVENT_CREATE_VIEW);
+        }
+        if (mMetrics == null) {
+            return createItemViewHolder(parent, viewType);
+        }
+        long start = System.nanoTime();
+        ViewHolder holder = createItemViewHolder(parent, viewType);
+        mMetrics.onViewHolderCreated(viewType, System.nanoTime() - start);
+        return holder;
+    }
+
+    private ViewHolder createItemViewHolder(ViewGroup parent, int viewType) {
+        if (isAddedFixedViewType(viewType)) {
+            return createFixedViewHolder(viewType);
+        }
+        if (mViewHolderPool != null) {
+            mViewHolderPool.onViewHolderCreated(viewType);
+        }
 
         //进行判断显示类型，来创建返回不同的View
         if (viewType == TYPE_FOOTER) {
@@ -107,12 +418,24 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
             view.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                    if (mErrorListener != null && loadState == LOAD_ERROR) {
+                    if (mErrorListener != null && mLoadStateMachine.getState() == LoadingState.LOAD_ERROR) {
                         mErrorListener.onClick();
                     }
                 }
             });
             return new FootViewHolder(view);
+        } else if (viewType == FixedViewSlots.LOAD_PREVIOUS_TYPE) {
+            View view = mInflater.inflate(R.layout.layout_refresh_footer, parent, false);
+            view.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    if (mLoadPreviousErrorListener != null
+                            && mLoadPreviousStateMachine.getState() == LoadingState.LOAD_ERROR) {
+                        mLoadPreviousErrorListener.onClick();
+                    }
+                }
+            });
+            return new FootViewHolder(view);
         } else {
             ViewHolder viewHolder = onCreateCustomViewHolder(parent, viewType);
             viewHolder.itemView.setOnClickListener(this);
@@ -121,82 +444,353 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
 
     }
 
-    // 创建多布局的ViewHolder
-    public abstract ViewHolder onCreateCustomViewHolder(ViewGroup parent, int viewType);
+    // 头布局、脚布局直接使用添加的View
+    private ViewHolder createFixedViewHolder(int viewType) {
+        View view = mHeaders.findViewByType(viewType);
+        if (view == null) {
+            view = mFooters.findViewByType(viewType);
+        }
+        ViewHolder holder = new ViewHolder(view);
+        // 一个View只能属于一个ViewHolder，不放入回收池
+        holder.setIsRecyclable(false);
+        return holder;
+    }
+
+    // 创建多布局的ViewHolder，默认由注册的ItemViewDelegate创建
+    public ViewHolder onCreateCustomViewHolder(ViewGroup parent, int viewType) {
+        return requireDelegateRegistry().getDelegate(viewType).onCreateViewHolder(mInflater, parent);
+    }
 
     // 绑定ViewHolder 需要定义抽象方法来实现里面的操作，
     // 所以LoadMoreLinearBaseAdapter需要声明成抽象类
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
+        holder.mMetrics = mMetrics;
+        if (mMetrics == null) {
+            bindItemViewHolder(holder, position);
+            return;
+        }
+        long start = System.nanoTime();
+        bindItemViewHolder(holder, position);
+        mMetrics.onViewHolderBound(holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    private void bindItemViewHolder(ViewHolder holder, int position) {
+        if (isAddedFixedView(holder)) {
+            // 头布局、脚布局的内容由调用方维护
+            return;
+        }
+        if (mViewHolderPool != null) {
+            mViewHolderPool.onViewHolderBound(holder.getItemViewType());
+        }
 
         if (holder instanceof FootViewHolder) {
-            FootViewHolder footViewHolder = (FootViewHolder) holder;
-            switch (loadState) {
-                case LOADING: // 正在加载
-
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.VISIBLE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.VISIBLE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-
-                case LOAD_COMPLETE: // 加载完成
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.INVISIBLE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.INVISIBLE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-
-                case LOAD_END: // 加载到底
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.GONE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.VISIBLE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-                case LOAD_ERROR: // 加载出错
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.GONE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.VISIBLE);
-                    break;
-                case LOAD_NODATA:
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.GONE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.VISIBLE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-            }
+            LoadStateMachine stateMachine = holder.getItemViewType() == FixedViewSlots.LOAD_PREVIOUS_TYPE
+                    ? mLoadPreviousStateMachine : mLoadStateMachine;
+            ((FootViewHolder) holder).bindState(stateMachine.getState());
         } else {
 
-            // 需要子类去实现 具体操作
+            // 需要子类去实现 具体操作，传给子类的是数据的位置，不包含头布局
+            onBindCustomViewHolder(holder, position - mHeaders.size());
+        }
+    }
+
+    // 带payload的绑定，payload为空、头布局或脚布局时整体绑定，否则交给bindPartial局部刷新
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty() || holder instanceof FootViewHolder || isAddedFixedView(holder)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int dataPosition = position - mHeaders.size();
+        holder.mMetrics = mMetrics;
+        if (mMetrics == null) {
+            bindPartial(holder, mDatas.get(dataPosition), dataPosition, payloads);
+            return;
+        }
+        long start = System.nanoTime();
+        bindPartial(holder, mDatas.get(dataPosition), dataPosition, payloads);
+        mMetrics.onViewHolderBound(holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    // 是否是通过addHeaderView、addFooterView添加的布局
+    private boolean isAddedFixedView(ViewHolder holder) {
+        return isAddedFixedViewType(holder.getItemViewType());
+    }
+
+    private boolean isAddedFixedViewType(int viewType) {
+        return viewType != TYPE_FOOTER && viewType != FixedViewSlots.LOAD_PREVIOUS_TYPE
+                && FixedViewSlots.isFixedViewType(viewType);
+    }
+
+    // 局部刷新某条数据，position为数据的位置，payload会传给bindPartial
+    public void updateItem(int position, Object payload) {
+        notifyItemChanged(mHeaders.size() + position, payload);
+    }
+
+    // 绑定多布局的ViewHolder，position为数据的位置，默认由注册的ItemViewDelegate绑定
+    @SuppressWarnings("unchecked")
+    public void onBindCustomViewHolder(ViewHolder holder, int position) {
+        ItemViewDelegate<T> delegate = (ItemViewDelegate<T>) requireDelegateRegistry().getDelegate(holder.getItemViewType());
+        delegate.onBindViewHolder(holder, mDatas.get(position), position);
+    }
+
+    // 局部刷新，payloads为updateItem或diff产生的变化，默认交给注册的ItemViewDelegate，
+    // 没有注册该viewType时（子类自己处理的布局）交给onBindCustomViewHolder整体重新绑定
+    @SuppressWarnings("unchecked")
+    public void bindPartial(ViewHolder holder, T t, int position, List<Object> payloads) {
+        if (mDelegateRegistry == null || !mDelegateRegistry.hasDelegate(holder.getItemViewType())) {
             onBindCustomViewHolder(holder, position);
+            return;
+        }
+        ItemViewDelegate<T> delegate = (ItemViewDelegate<T>) mDelegateRegistry.getDelegate(holder.getItemViewType());
+        delegate.onBindViewHolder(holder, t, position, payloads);
+    }
+
+    // 按类注册item布局，返回分配的viewType
+    public <S extends T> int registerDelegate(Class<S> itemClass, ItemViewDelegate<S> delegate) {
+        return getDelegateRegistry().register(itemClass, delegate);
+    }
+
+    // 按条件注册item布局，返回分配的viewType
+    public int registerDelegate(ItemDelegateRegistry.Matcher<? super T> matcher, ItemViewDelegate<? super T> delegate) {
+        return getDelegateRegistry().register(matcher, delegate);
+    }
+
+    // 对外提供item布局的注册表
+    public ItemDelegateRegistry<T> getDelegateRegistry() {
+        if (mDelegateRegistry == null) {
+            mDelegateRegistry = new ItemDelegateRegistry<>();
         }
+        return mDelegateRegistry;
     }
 
-    public abstract void onBindCustomViewHolder(ViewHolder holder, int position);
+    private ItemDelegateRegistry<T> requireDelegateRegistry() {
+        if (mDelegateRegistry == null) {
+            throw new IllegalStateException("register an ItemViewDelegate or override the custom view holder methods");
+        }
+        return mDelegateRegistry;
+    }
 
 
+    /**
+     * 使用共享的ViewHolder池，需要在setAdapter之前调用
+     * 脚布局在池中只保留一个
+     */
+    public void setSharedViewPool(TunableViewPool pool) {
+        mViewHolderPool = pool;
+        if (pool != null) {
+            pool.setMaxRecycledViews(TYPE_FOOTER, 1);
+            pool.setMaxRecycledViews(FixedViewSlots.LOAD_PREVIOUS_TYPE, 1);
+        }
+    }
+
     @Override
     public void onAttachedToRecyclerView(RecyclerView recyclerView) {
         super.onAttachedToRecyclerView(recyclerView);
         mRecyclerView = recyclerView;
+
+        if (mViewHolderPool != null) {
+            recyclerView.setRecycledViewPool(mViewHolderPool);
+        }
+
+        // 网格布局下脚布局占满一行，需要在setAdapter之前设置LayoutManager
+        RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+        if (manager instanceof GridLayoutManager) {
+            GridLayoutManager gridManager = (GridLayoutManager) manager;
+            if (!FooterSpanSizeLookup.isInstalled(gridManager, this)) {
+                gridManager.setSpanSizeLookup(new FooterSpanSizeLookup(this, TYPE_FOOTER,
+                        gridManager, gridManager.getSpanSizeLookup()));
+            }
+        }
+    }
+
+    @Override
+    public void onViewAttachedToWindow(ViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+        // 瀑布流下头布局、脚布局占满一行
+        if (holder instanceof FootViewHolder || FixedViewSlots.isFixedViewType(holder.getItemViewType())) {
+            ViewGroup.LayoutParams params = holder.itemView.getLayoutParams();
+            if (params instanceof StaggeredGridLayoutManager.LayoutParams) {
+                ((StaggeredGridLayoutManager.LayoutParams) params).setFullSpan(true);
+            }
+        }
     }
 
 
     // 清空数据源
     public void clearAll() {
+        cancelPendingDiff();
+        if (mFilter != null) {
+            mFilter.reset();
+        }
+        // 取消diff和丢弃过滤后可以应用暂存的修改
+        mMutationBatcher.resume();
+        int itemCount = mDatas.size();
+        if (itemCount == 0) {
+            return;
+        }
         mDatas.clear();
-        notifyDataSetChanged();
+        notifyItemRangeRemoved(mHeaders.size(), itemCount);
+    }
+
+    // 提交新的数据源，在后台线程计算差异后只刷新变化的item，脚布局不参与diff
+    // 计算期间再次提交或调用clearAll，之前的结果会被丢弃；调用addData则等diff应用后再追加
+    public void submitList(List<T> newList) {
+        List<T> newData = newList == null ? new ArrayList<T>() : new ArrayList<>(newList);
+        if (isFiltering()) {
+            // 过滤时替换完整数据，过滤结果和当前显示的数据做diff
+            mFilter.replaceSource(newData);
+            return;
+        }
+        if (mDatas.isEmpty() || newData.isEmpty()) {
+            // 有一边为空时不需要diff
+            clearAll();
+            addData(newData);
+            return;
+        }
+        mPendingAppends.clear();
+        mPendingPrepends.clear();
+        getDiffer().submit(new ArrayList<>(mDatas), newData);
+    }
+
+    // 设置submitList比较item的回调
+    public void setItemDiffCallback(ItemDiffCallback<T> callback) {
+        getDiffer().setItemCallback(callback);
+    }
+
+    // 设置submitList计算diff的线程池，默认使用内部的后台线程池
+    public void setDiffExecutor(Executor executor) {
+        getDiffer().setExecutor(executor);
+    }
+
+    private ListDiffer<T> getDiffer() {
+        if (mDiffer == null) {
+            mDiffer = new ListDiffer<>(new ListDiffer.Callback<T>() {
+                @Override
+                public void onDiffCalculated(List<T> newList, DiffUtil.DiffResult result) {
+                    mDatas.clear();
+                    mDatas.addAll(newList);
+                    // diff只覆盖数据区间，加上头布局的偏移，脚布局的位置随数据自然移动
+                    result.dispatchUpdatesTo(new OffsetListUpdateCallback(LoadMoreLinearBase2Adapter.this, mHeaders.size()));
+                    if (!mPendingPrepends.isEmpty()) {
+                        List<T> prepends = new ArrayList<>(mPendingPrepends);
+                        mPendingPrepends.clear();
+                        prependData(prepends);
+                    }
+                    if (!mPendingAppends.isEmpty()) {
+                        List<T> appends = new ArrayList<>(mPendingAppends);
+                        mPendingAppends.clear();
+                        addData(appends);
+                    }
+                    // diff期间开始的过滤等diff应用后再计算
+                    if (mFilter != null && mFilter.isActive() && !mFilter.isFiltering()) {
+                        mFilter.update();
+                    }
+                    // diff期间暂存的post系列修改
+                    mMutationBatcher.resume();
+                }
+            });
+        }
+        return mDiffer;
+    }
+
+    // 设置搜索时取出item文本的方法，需要在setFilterQuery之前调用
+    public void setFilterTextExtractor(ItemTextExtractor<T> extractor) {
+        getFilter().setTextExtractor(extractor);
+        if (isFiltering()) {
+            applyFilter();
+        }
+    }
+
+    /**
+     * 按搜索词过滤，为空时清除搜索词；每个词都要是item文本中某个词的前缀才显示
+     * 在后台线程用索引计算，还没完成的上一次过滤会被取消，结果只通知变化的区间
+     * 过滤期间addData、prependData和submitList修改的是完整数据，post系列的修改等清除过滤后再应用
+     */
+    public void setFilterQuery(CharSequence query) {
+        getFilter().setQuery(query);
+        applyFilter();
+    }
+
+    // 按条件过滤，和搜索词同时生效，为空时清除条件
+    public void setFilterPredicate(ItemPredicate<T> predicate) {
+        getFilter().setPredicate(predicate);
+        applyFilter();
+    }
+
+    // 清除搜索词和过滤条件，立即显示完整数据
+    public void clearFilter() {
+        if (mFilter != null) {
+            mFilter.clear();
+        }
+    }
+
+    // 是否正在显示过滤结果
+    public boolean isFiltering() {
+        return mFilter != null && mFilter.isFiltering();
+    }
+
+    // 未过滤的完整数据，没有过滤时和getmDatas相同
+    public List<T> getUnfilteredData() {
+        return isFiltering() ? mFilter.getSource() : mDatas;
+    }
+
+    // 设置过滤使用的线程池，默认使用内部的后台线程池
+    public void setFilterExecutor(Executor executor) {
+        getFilter().setExecutor(executor);
+    }
+
+    private void applyFilter() {
+        if (mDiffer != null && mDiffer.isPending()) {
+            return;
+        }
+        mFilter.update();
+    }
+
+    private ListFilter<T> getFilter() {
+        if (mFilter == null) {
+            mFilter = new ListFilter<>(new ListFilter.Target<T>() {
+                @Override
+                public List<T> getData() {
+                    return mDatas;
+                }
+
+                @Override
+                public ItemDiffCallback<T> getItemCallback() {
+                    return getDiffer().getItemCallback();
+                }
+
+                @Override
+                public ListUpdateCallback getUpdateCallback() {
+                    return new OffsetListUpdateCallback(LoadMoreLinearBase2Adapter.this, mHeaders.size());
+                }
+
+                @Override
+                public void onCleared() {
+                    // 过滤期间暂存的post系列修改
+                    mMutationBatcher.resume();
+                }
+            });
+        }
+        return mFilter;
+    }
+
+    private void cancelPendingDiff() {
+        if (mDiffer != null) {
+            mDiffer.cancel();
+        }
+        mPendingAppends.clear();
+        mPendingPrepends.clear();
     }
 
     @Override
     public void onClick(View v) {
-        int position = mRecyclerView.getChildAdapterPosition(v);
+        int position = getDataPosition(mRecyclerView.getChildAdapterPosition(v));
+        if (position == RecyclerView.NO_POSITION) {
+            // 已经被移除的item
+            return;
+        }
         T t = mDatas.get(position);
         if (mListener != null) {
             mListener.onClick(t, position);
@@ -207,19 +801,28 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
     // 脚布局ViewHoldr类
     private static class FootViewHolder extends LoadMoreLinearBase2Adapter.ViewHolder {
 
+        private final FooterStateBinder mStateBinder;
+
         FootViewHolder(View itemView) {
             super(itemView);
+            mStateBinder = new FooterStateBinder(itemView);
+        }
+
+        void bindState(LoadingState state) {
+            mStateBinder.bind(state);
         }
     }
 
 
     // ViewHoldr类
     public static class ViewHolder extends RecyclerView.ViewHolder {
-        private Map<Integer, View> mCacheViews;
+        private IntObjectCache<View> mCacheViews;
+        // 绑定时由Adapter设置，用于统计缓存命中率
+        private AdapterMetrics mMetrics;
 
         public ViewHolder(View itemView) {
             super(itemView);
-            mCacheViews = new HashMap<>();
+            mCacheViews = new IntObjectCache<>();
         }
 
 
@@ -261,13 +864,17 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
         }
 
         public <T extends View> T getView(int resId) {
-            View view = null;
-            if (mCacheViews.containsKey(resId)) {
-                view = mCacheViews.get(resId);
-            } else {
+            // 命中时只有一次查找，没有装箱
+            View view = mCacheViews.get(resId);
+            // 找不到的id也缓存为null，之后不再遍历View树
+            boolean hit = view != null || mCacheViews.containsKey(resId);
+            if (!hit) {
                 view = itemView.findViewById(resId);
                 mCacheViews.put(resId, view);
             }
+            if (mMetrics != null) {
+                mMetrics.onViewCacheLookup(hit);
+            }
             return (T) view;
         }
     }
@@ -279,8 +886,45 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
      * @param loadState 0.正在加载 1.加载完成 2.加载到底
      */
     public void setLoadState(LoadingState loadState) {
-        this.loadState = loadState.getmState();
-        notifyDataSetChanged();
+        mLoadStateMachine.moveTo(loadState);
+    }
+
+    // 对外提供加载状态机，交给OnLoadMoreListener后可以避免重复加载
+    public LoadStateMachine getLoadStateMachine() {
+        return mLoadStateMachine;
+    }
+
+    // 设置顶部加载指示器的状态
+    public void setLoadPreviousState(LoadingState loadState) {
+        mLoadPreviousStateMachine.moveTo(loadState);
+    }
+
+    // 对外提供顶部加载的状态机，交给OnLoadMoreListener.setLoadPreviousStateMachine后可以避免重复加载
+    public LoadStateMachine getLoadPreviousStateMachine() {
+        return mLoadPreviousStateMachine;
+    }
+
+    /**
+     * 开启运行指标，传null关闭，通过AdapterMetrics.snapshot读取
+     */
+    public void setMetrics(AdapterMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public AdapterMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 关联卡顿监控，慢帧会标记这一帧里的加载状态切换、添加数据和创建ViewHolder，传null取消关联
+     * JankMonitor本身还需要通过RecyclerView.addOnScrollListener添加
+     */
+    public void setJankMonitor(JankMonitor jankMonitor) {
+        mJankMonitor = jankMonitor;
+    }
+
+    public JankMonitor getJankMonitor() {
+        return mJankMonitor;
     }
 
     // 对外提供获取数据源的方法
@@ -308,6 +952,11 @@ public abstract class LoadMoreLinearBase2Adapter<T> extends RecyclerView.Adapter
         this.mErrorListener = mErrorListener;
     }
 
+    // 顶部加载指示器处于错误状态时的点击事件
+    public void setOnLoadPreviousErrorListener(OnFooterErrorListener listener) {
+        this.mLoadPreviousErrorListener = listener;
+    }
+
 
     public interface OnItemClickListener<T> {
         // 传递当前点击的对象（List对应位置的数据）与位置
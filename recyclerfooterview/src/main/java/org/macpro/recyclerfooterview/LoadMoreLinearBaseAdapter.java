@@ -1,7 +1,11 @@
 package org.macpro.recyclerfooterview;
 
 import android.content.Context;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -16,9 +20,10 @@ import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Created by Konfyt on 2016/9/14.
@@ -33,34 +38,102 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
     private int mLayoutResId;
     // Attach的RecyclerView
     private RecyclerView mRecyclerView;
+    // 加载状态变化后待刷新的脚布局和顶部加载指示器
+    private boolean mFooterChanged;
+    private boolean mLoadPreviousChanged;
+    private boolean mStateViewsChangedScheduled;
     // item的点击事件
     private OnItemClickListener mListener;
     // error的点击事件
     private OnFooterErrorListener mErrorListener;
+    // submitList使用的后台diff
+    private ListDiffer<T> mDiffer;
+    // 共享的ViewHolder池，未设置时为空
+    private TunableViewPool mViewHolderPool;
+    // item的id，未设置时不开启stable ids
+    private ItemIdExtractor<T> mIdExtractor;
+    // diff计算期间追加的数据
+    private final List<T> mPendingAppends = new ArrayList<>();
+    // diff计算期间插入到最前面的数据
+    private final List<T> mPendingPrepends = new ArrayList<>();
+    // 顶部加载指示器的点击事件
+    private OnFooterErrorListener mLoadPreviousErrorListener;
+    // 运行指标，未开启时为空
+    private AdapterMetrics mMetrics;
+    // 卡顿监控，未关联时为空
+    private JankMonitor mJankMonitor;
+    // 过滤模式，未使用时为空
+    private ListFilter<T> mFilter;
+    // 有序模式的排序，未开启时为空
+    private SortedOrder<T> mSortedOrder;
+    // 任意线程提交的修改，每帧合并应用一次
+    private final MutationBatcher<T> mMutationBatcher = new MutationBatcher<>(new MutationBatcher.Target<T>() {
+        @Override
+        public boolean isReady() {
+            // 过滤时显示的是过滤结果，等清除过滤后再修改
+            return (mDiffer == null || !mDiffer.isPending()) && !isFiltering();
+        }
+
+        @Override
+        public List<T> getData() {
+            return mDatas;
+        }
+
+        @Override
+        public ItemDiffCallback<T> getItemCallback() {
+            return getDiffer().getItemCallback();
+        }
+
+        @Override
+        public ListUpdateCallback getUpdateCallback() {
+            return new OffsetListUpdateCallback(LoadMoreLinearBaseAdapter.this, mHeaders.size());
+        }
+
+        @Override
+        public SortedOrder<T> getSortedOrder() {
+            return mSortedOrder;
+        }
+    });
+    // 分页数据源的加载器
+    private PagedLoader<?, T> mPagedLoader;
+    // 分页加载的每页数量
+    private int mPageSize = DEFAULT_PAGE_SIZE;
+    // 窗口模式下的数据源，未开启时为空
+    private WindowedList<T> mWindowedDatas;
+    // 最近绑定的数据位置，窗口模式下以它为中心淘汰
+    private int mLastBoundPosition;
+    private boolean mTrimScheduled;
+    // 前几页的磁盘缓存
+    private PageDiskCache<T> mPageDiskCache;
+    // 当前要写入缓存的页
+    private final List<List<T>> mCachedPages = new ArrayList<>();
+    // 预填充的View池，未开启时为空
+    private InflatedViewPool mViewPool;
+    // 预填充的item数量
+    private int mPreInflateCount;
     // 上下文对象
     private Context mContext;
+    // 头布局
+    private final FixedViewSlots mHeaders = new FixedViewSlots(FixedViewSlots.HEADER_TYPE_BASE);
+    // 脚布局，加载更多的脚布局也是其中一项
+    private final FixedViewSlots mFooters = new FixedViewSlots(FixedViewSlots.FOOTER_TYPE_BASE);
 
 
-    // 默认布局
-    private final int TYPE_ITEM = 1;
-    // 脚布局
-    private final int TYPE_FOOTER = 2;
+    // 加载更多的脚布局，使用保留区间内的viewType，item的布局也是layout_refresh_footer时不会冲突
+    private final int TYPE_FOOTER = FixedViewSlots.LOAD_MORE_TYPE;
 
 
-    // 当前加载状态，默认为加载完成
-    private int loadState = 2;
+    // 加载状态机，默认为加载完成
+    private final LoadStateMachine mLoadStateMachine = new LoadStateMachine();
+    // 顶部加载更早数据的状态机
+    private final LoadStateMachine mLoadPreviousStateMachine = new LoadStateMachine();
 
 
     // 正在加载
     public final int LOADING = 1;
-    // 加载完成
-    private final int LOAD_COMPLETE = 2;
-    // 加载到底
-    private final int LOAD_END = 3;
-    // 加载出错
-    private final int LOAD_ERROR = 4;
-    // 加载无数据
-    private final int LOAD_NODATA = 5;
+
+    // 默认每页数量
+    private static final int DEFAULT_PAGE_SIZE = 20;
 
 
     public LoadMoreLinearBaseAdapter(Context context, int layoutResId) {
@@ -68,8 +141,66 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
         mLayoutResId = layoutResId;
         mDatas = new ArrayList<>();
         mContext = context;
+        mFooters.addSpecial(0, TYPE_FOOTER);
+        mLoadStateMachine.addOnStateChangedListener(new LoadStateMachine.OnStateChangedListener() {
+            @Override
+            public void onStateChanged(LoadingState oldState, LoadingState newState) {
+                if (mMetrics != null) {
+                    mMetrics.onFooterStateChanged(oldState, newState);
+                }
+                if (mJankMonitor != null) {
+                    mJankMonitor.markEvent(JankMonitor.EVENT_LOAD_STATE);
+                }
+                // 状态变化只影响脚布局
+                mFooterChanged = true;
+                scheduleStateViewsChanged();
+            }
+        });
+        mLoadPreviousStateMachine.addOnStateChangedListener(new LoadStateMachine.OnStateChangedListener() {
+            @Override
+            public void onStateChanged(LoadingState oldState, LoadingState newState) {
+                // 状态变化只影响顶部加载指示器
+                mLoadPreviousChanged = true;
+                scheduleStateViewsChanged();
+            }
+        });
     }
 
+    /**
+     * 状态变化通常发生在滑动回调里，此时RecyclerView还在滚动或布局，放到下一个消息里再刷新脚布局和顶部加载指示器
+     * 未关联RecyclerView时直接刷新
+     */
+    private void scheduleStateViewsChanged() {
+        if (mRecyclerView == null) {
+            mStateViewsChangedRunnable.run();
+        } else if (!mStateViewsChangedScheduled) {
+            mStateViewsChangedScheduled = true;
+            AdapterExecutors.mainHandler().post(mStateViewsChangedRunnable);
+        }
+    }
+
+    private final Runnable mStateViewsChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mStateViewsChangedScheduled = false;
+            // 执行时再取位置，期间数据或头布局可能已经变化
+            if (mFooterChanged) {
+                mFooterChanged = false;
+                int footerPosition = getFooterPosition();
+                if (footerPosition != RecyclerView.NO_POSITION) {
+                    notifyItemChanged(footerPosition);
+                }
+            }
+            if (mLoadPreviousChanged) {
+                mLoadPreviousChanged = false;
+                int index = mHeaders.indexOfType(FixedViewSlots.LOAD_PREVIOUS_TYPE);
+                if (index >= 0) {
+                    notifyItemChanged(index);
+                }
+            }
+        }
+    };
+
 
     public LoadMoreLinearBaseAdapter(Context context, int layoutResId, List<T> list) {
         this(context, layoutResId);
@@ -79,44 +210,285 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
 
     // 添加数据源
     public void addData(List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (isFiltering()) {
+            if (mSortedOrder != null) {
+                // 有序模式下合并会改变已有的下标，替换完整数据后用diff通知
+                List<T> source = new ArrayList<>(mFilter.getSource());
+                mSortedOrder.merge(source, data, null);
+                mFilter.replaceSource(source);
+            } else {
+                // 过滤时追加到完整数据，重新过滤后再显示
+                mFilter.appendSource(data);
+            }
+            return;
+        }
+        if (mDiffer != null && mDiffer.isPending()) {
+            // 正在diff时追加的数据，等diff应用后再添加
+            mPendingAppends.addAll(data);
+            return;
+        }
+        if (mJankMonitor != null) {
+            mJankMonitor.markEvent(JankMonitor.EVENT_ADD_DATA);
+        }
+        if (mSortedOrder != null) {
+            // 有序模式下按排序一次合并，只通知插入的位置
+            mSortedOrder.merge(mDatas, data, new OffsetListUpdateCallback(this, mHeaders.size()));
+            return;
+        }
+        int positionStart = mDatas.size();
         mDatas.addAll(data);
-        notifyDataSetChanged();
+        // 只通知新增的区间，已显示的item不需要重新绑定
+        notifyItemRangeInserted(mHeaders.size() + positionStart, data.size());
+    }
+
+    /**
+     * 在数据最前面插入，用于加载更早的数据
+     * 只有头布局可见时会保持第一条数据在屏幕上的位置，新数据出现在它的上方，不会跳动
+     */
+    public void prependData(List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (mSortedOrder != null) {
+            // 有序模式下位置由排序决定
+            addData(data);
+            return;
+        }
+        checkNotWindowed();
+        if (mDiffer != null && mDiffer.isPending()) {
+            // 正在diff时插入的数据，等diff应用后再插入，后插入的在更前面
+            mPendingPrepends.addAll(0, data);
+            return;
+        }
+        if (isFiltering()) {
+            // 过滤时插入到完整数据前面，已有的下标都后移，重新过滤后用diff通知
+            List<T> source = new ArrayList<>(data);
+            source.addAll(mFilter.getSource());
+            mFilter.replaceSource(source);
+            return;
+        }
+        mDatas.addAll(0, data);
+        if (mJankMonitor != null) {
+            mJankMonitor.markEvent(JankMonitor.EVENT_ADD_DATA);
+        }
+        ScrollAnchor.notifyPrepended(this, mRecyclerView, mHeaders.size(), data.size());
     }
 
+    // 以下方法可以在任意线程调用，修改会排队到下一帧开始时按顺序应用，同一帧内的修改只触发一次布局
+    // 正在diff时会等diff应用后再修改，过滤时等清除过滤后再修改
+
+    // 在最后追加数据
+    public void postAppend(List<T> data) {
+        mMutationBatcher.append(data);
+    }
+
+    // 在数据的position处插入，应用时超出范围则插入到最后；有序模式下忽略position，按排序插入
+    public void postInsert(int position, T item) {
+        checkNotWindowed();
+        mMutationBatcher.insert(position, item);
+    }
+
+    // 删除同一个item，通过ItemDiffCallback.areItemsTheSame查找
+    public void postRemove(T item) {
+        checkNotWindowed();
+        mMutationBatcher.remove(item);
+    }
+
+    // 用新的item替换同一个item，内容有变化时按getChangePayload局部刷新
+    public void postUpdate(T item) {
+        checkNotWindowed();
+        mMutationBatcher.update(item);
+    }
+
+    // 依次为头布局、数据、脚布局，按各段的数量直接计算，不需要遍历
     @Override
     public int getItemViewType(int position) {
-        // 最后一个item设置为FooterView
-        if (position == mDatas.size()) {
-            return TYPE_FOOTER;
+        int headerCount = mHeaders.size();
+        if (position < headerCount) {
+            return mHeaders.getViewType(position);
+        }
+        int dataPosition = position - headerCount;
+        if (dataPosition < mDatas.size()) {
+            return mLayoutResId;
+        }
+        return mFooters.getViewType(dataPosition - mDatas.size());
+    }
+
+    // 加载更多的脚布局所在的位置，关闭时返回NO_POSITION
+    private int getFooterPosition() {
+        int index = mFooters.indexOfType(TYPE_FOOTER);
+        return index < 0 ? RecyclerView.NO_POSITION : mHeaders.size() + mDatas.size() + index;
+    }
+
+    // Adapter中的位置转换为数据的位置，头布局、脚布局返回NO_POSITION
+    public int getDataPosition(int adapterPosition) {
+        int position = adapterPosition - mHeaders.size();
+        return position >= 0 && position < mDatas.size() ? position : RecyclerView.NO_POSITION;
+    }
+
+    // 头布局的数量，也是第一条数据在Adapter中的位置
+    public int getHeaderCount() {
+        return mHeaders.size();
+    }
+
+    // 脚布局的数量，包括加载更多的脚布局
+    public int getFooterCount() {
+        return mFooters.size();
+    }
+
+    // 添加头布局，头布局占满一行，内容由调用方维护
+    public void addHeaderView(View view) {
+        int index = mHeaders.size();
+        mHeaders.add(index, view);
+        notifyItemInserted(index);
+    }
+
+    public void removeHeaderView(View view) {
+        int index = mHeaders.remove(view);
+        if (index >= 0) {
+            notifyItemRemoved(index);
+        }
+    }
+
+    // 添加脚布局，位于加载更多的脚布局之前
+    public void addFooterView(View view) {
+        int loadMoreIndex = mFooters.indexOfType(TYPE_FOOTER);
+        int index = loadMoreIndex < 0 ? mFooters.size() : loadMoreIndex;
+        mFooters.add(index, view);
+        notifyItemInserted(mHeaders.size() + mDatas.size() + index);
+    }
+
+    public void removeFooterView(View view) {
+        int index = mFooters.remove(view);
+        if (index >= 0) {
+            notifyItemRemoved(mHeaders.size() + mDatas.size() + index);
+        }
+    }
+
+    // 设置是否在最顶部显示加载更早数据的指示器，状态由getLoadPreviousStateMachine控制
+    public void setLoadPreviousEnabled(boolean enabled) {
+        int index = mHeaders.indexOfType(FixedViewSlots.LOAD_PREVIOUS_TYPE);
+        if (enabled == (index >= 0)) {
+            return;
+        }
+        if (enabled) {
+            mHeaders.addSpecial(0, FixedViewSlots.LOAD_PREVIOUS_TYPE);
+            notifyItemInserted(0);
+        } else {
+            mHeaders.removeType(FixedViewSlots.LOAD_PREVIOUS_TYPE);
+            notifyItemRemoved(index);
+        }
+    }
+
+    // 设置是否显示加载更多的脚布局，默认显示在所有脚布局的最后
+    public void setLoadMoreFooterEnabled(boolean enabled) {
+        int index = mFooters.indexOfType(TYPE_FOOTER);
+        if (enabled == (index >= 0)) {
+            return;
+        }
+        if (enabled) {
+            mFooters.addSpecial(mFooters.size(), TYPE_FOOTER);
+            notifyItemInserted(getFooterPosition());
         } else {
-            return TYPE_ITEM;
+            mFooters.removeType(TYPE_FOOTER);
+            notifyItemRemoved(mHeaders.size() + mDatas.size() + index);
         }
     }
 
-    // 获取item的总数量(数据源+脚布局)
+    @Override
+    public long getItemId(int position) {
+        if (mIdExtractor == null) {
+            return RecyclerView.NO_ID;
+        }
+        int viewType = getItemViewType(position);
+        if (viewType == TYPE_FOOTER) {
+            return ItemIdExtractor.FOOTER_ID;
+        }
+        if (FixedViewSlots.isFixedViewType(viewType)) {
+            return FixedViewSlots.getItemId(viewType);
+        }
+        int dataPosition = position - mHeaders.size();
+        T t = mDatas.get(dataPosition);
+        if (t == null && mWindowedDatas != null) {
+            // 窗口模式下的占位，按位置生成，位置不会变化
+            return FixedViewSlots.PLACEHOLDER_ID_BASE + dataPosition;
+        }
+        return mIdExtractor.getItemId(t);
+    }
+
+    /**
+     * 设置item的id，开启stable ids，需要在setAdapter之前调用
+     */
+    public void setItemIdExtractor(ItemIdExtractor<T> extractor) {
+        mIdExtractor = extractor;
+        setHasStableIds(extractor != null);
+    }
+
+    // 获取item的总数量(头布局+数据源+脚布局)
     @Override
     public int getItemCount() {
-        return mDatas.size() + 1;
+        return mHeaders.size() + mDatas.size() + mFooters.size();
     }
 
     // 创建ViewHolder
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        if (mJankMonitor != null) {
+            mJankMonitor.markEvent(JankMonitor.EVENT_CREATE_VIEW);
+        }
+        if (mMetrics == null) {
+            return createItemViewHolder(parent, viewType);
+        }
+        long start = System.nanoTime();
+        ViewHolder holder = createItemViewHolder(parent, viewType);
+        mMetrics.onViewHolderCreated(viewType, System.nanoTime() - start);
+        return holder;
+    }
+
+    private ViewHolder createItemViewHolder(ViewGroup parent, int viewType) {
+        if (isAddedFixedViewType(viewType)) {
+            return createFixedViewHolder(viewType);
+        }
+        if (mViewHolderPool != null) {
+            mViewHolderPool.onViewHolderCreated(viewType);
+        }
 
         //进行判断显示类型，来创建返回不同的View
         if (viewType == TYPE_FOOTER) {
-            View view = mInflater.inflate(R.layout.layout_refresh_footer, parent, false);
+            View view = obtainView(R.layout.layout_refresh_footer, parent);
             view.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                    if (mErrorListener != null && loadState == LOAD_ERROR) {
+                    if (mLoadStateMachine.getState() != LoadingState.LOAD_ERROR) {
+                        return;
+                    }
+                    // 使用分页数据源时点击直接重试
+                    if (mPagedLoader != null) {
+                        loadMore();
+                    }
+                    if (mErrorListener != null) {
                         mErrorListener.onClick();
                     }
                 }
             });
             return new FootViewHolder(view);
+        } else if (viewType == FixedViewSlots.LOAD_PREVIOUS_TYPE) {
+            View view = mInflater.inflate(R.layout.layout_refresh_footer, parent, false);
+            view.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    if (mLoadPreviousErrorListener != null
+                            && mLoadPreviousStateMachine.getState() == LoadingState.LOAD_ERROR) {
+                        mLoadPreviousErrorListener.onClick();
+                    }
+                }
+            });
+            return new FootViewHolder(view);
         } else {
-            View itemView = mInflater.inflate(mLayoutResId, parent, false);
+            View itemView = obtainView(mLayoutResId, parent);
             // 设置item的点击事件
             itemView.setOnClickListener(this);
             return new ViewHolder(itemView);
@@ -124,81 +496,610 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
 
     }
 
+    // 头布局、脚布局直接使用添加的View
+    private ViewHolder createFixedViewHolder(int viewType) {
+        View view = mHeaders.findViewByType(viewType);
+        if (view == null) {
+            view = mFooters.findViewByType(viewType);
+        }
+        ViewHolder holder = new ViewHolder(view);
+        // 一个View只能属于一个ViewHolder，不放入回收池
+        holder.setIsRecyclable(false);
+        return holder;
+    }
+
     // 绑定ViewHolder 需要定义抽象方法来实现里面的操作，
     // 所以LoadMoreLinearBaseAdapter需要声明成抽象类
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
+        holder.mMetrics = mMetrics;
+        if (mMetrics == null) {
+            bindItemViewHolder(holder, position);
+            return;
+        }
+        long start = System.nanoTime();
+        bindItemViewHolder(holder, position);
+        mMetrics.onViewHolderBound(holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    private void bindItemViewHolder(ViewHolder holder, int position) {
+        if (isAddedFixedView(holder)) {
+            // 头布局、脚布局的内容由调用方维护
+            return;
+        }
+        if (mViewHolderPool != null) {
+            mViewHolderPool.onViewHolderBound(holder.getItemViewType());
+        }
 
         if (holder instanceof FootViewHolder) {
-            FootViewHolder footViewHolder = (FootViewHolder) holder;
-            switch (loadState) {
-                case LOADING: // 正在加载
-
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.VISIBLE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.VISIBLE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-
-                case LOAD_COMPLETE: // 加载完成
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.INVISIBLE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.INVISIBLE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-
-                case LOAD_END: // 加载到底
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.GONE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.VISIBLE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-                case LOAD_ERROR: // 加载出错
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.GONE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.GONE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.VISIBLE);
-                    break;
-                case LOAD_NODATA:
-                    footViewHolder.getProgressBar(R.id.pb_loading).setVisibility(View.GONE);
-                    footViewHolder.getTextView(R.id.tv_loading).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_end).setVisibility(View.GONE);
-                    footViewHolder.getLinearLayout(R.id.ll_no_data).setVisibility(View.VISIBLE);
-                    footViewHolder.getRelativeLayout(R.id.ll_error).setVisibility(View.GONE);
-                    break;
-            }
+            LoadStateMachine stateMachine = holder.getItemViewType() == FixedViewSlots.LOAD_PREVIOUS_TYPE
+                    ? mLoadPreviousStateMachine : mLoadStateMachine;
+            ((FootViewHolder) holder).bindState(stateMachine.getState());
         } else {
 
+            // 传给子类的是数据的位置，不包含头布局
+            int dataPosition = position - mHeaders.size();
+            T t = mDatas.get(dataPosition);
+            if (mWindowedDatas != null && onWindowedPositionBound(dataPosition)) {
+                // 被淘汰的占位，等重新加载后再绑定
+                bindPlaceholder(holder, dataPosition);
+                return;
+            }
             // 需要子类去实现 具体操作
-            bind(holder, mDatas.get(position), position);
+            bind(holder, t, dataPosition);
         }
     }
 
+    // 带payload的绑定，payload为空、头布局、脚布局或占位时整体绑定，否则交给bindPartial局部刷新
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty() || holder instanceof FootViewHolder || isAddedFixedView(holder)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int dataPosition = position - mHeaders.size();
+        T t = mDatas.get(dataPosition);
+        if (t == null && mWindowedDatas != null) {
+            // 窗口模式下的占位
+            onBindViewHolder(holder, position);
+            return;
+        }
+        holder.mMetrics = mMetrics;
+        if (mMetrics == null) {
+            bindPartial(holder, t, dataPosition, payloads);
+            return;
+        }
+        long start = System.nanoTime();
+        bindPartial(holder, t, dataPosition, payloads);
+        mMetrics.onViewHolderBound(holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    // 是否是通过addHeaderView、addFooterView添加的布局
+    private boolean isAddedFixedView(ViewHolder holder) {
+        return isAddedFixedViewType(holder.getItemViewType());
+    }
+
+    private boolean isAddedFixedViewType(int viewType) {
+        return viewType != TYPE_FOOTER && viewType != FixedViewSlots.LOAD_PREVIOUS_TYPE
+                && FixedViewSlots.isFixedViewType(viewType);
+    }
+
+    // 局部刷新某条数据，position为数据的位置，payload会传给bindPartial
+    public void updateItem(int position, Object payload) {
+        notifyItemChanged(mHeaders.size() + position, payload);
+    }
+
+
+    // 优先从预填充的池中取View，取不到时同步填充
+    private View obtainView(int layoutResId, ViewGroup parent) {
+        View view = mViewPool != null ? mViewPool.obtain(layoutResId) : null;
+        return view != null ? view : mInflater.inflate(layoutResId, parent, false);
+    }
+
+    /**
+     * 开启预填充，绑定RecyclerView时在后台线程先填充count个item View和脚布局
+     * 需要在setAdapter之前调用
+     */
+    public void setPreInflateCount(int count) {
+        mPreInflateCount = count;
+        if (count > 0 && mViewPool == null) {
+            mViewPool = new InflatedViewPool();
+        }
+    }
+
+    // 对外提供预填充的View池，可以读取命中次数，未开启时为空
+    public InflatedViewPool getInflatedViewPool() {
+        return mViewPool;
+    }
+
+    /**
+     * 使用共享的ViewHolder池，需要在setAdapter之前调用
+     * 脚布局在池中只保留一个
+     */
+    public void setSharedViewPool(TunableViewPool pool) {
+        mViewHolderPool = pool;
+        if (pool != null) {
+            pool.setMaxRecycledViews(TYPE_FOOTER, 1);
+            pool.setMaxRecycledViews(FixedViewSlots.LOAD_PREVIOUS_TYPE, 1);
+        }
+    }
 
     @Override
     public void onAttachedToRecyclerView(RecyclerView recyclerView) {
         super.onAttachedToRecyclerView(recyclerView);
         mRecyclerView = recyclerView;
+
+        if (mViewHolderPool != null) {
+            recyclerView.setRecycledViewPool(mViewHolderPool);
+        }
+
+        if (mViewPool != null) {
+            mViewPool.prefill(recyclerView, mLayoutResId, mPreInflateCount);
+            mViewPool.prefill(recyclerView, R.layout.layout_refresh_footer, 1);
+        }
+
+        // 网格布局下脚布局占满一行，需要在setAdapter之前设置LayoutManager
+        RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+        if (manager instanceof GridLayoutManager) {
+            GridLayoutManager gridManager = (GridLayoutManager) manager;
+            if (!FooterSpanSizeLookup.isInstalled(gridManager, this)) {
+                gridManager.setSpanSizeLookup(new FooterSpanSizeLookup(this, TYPE_FOOTER,
+                        gridManager, gridManager.getSpanSizeLookup()));
+            }
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (mViewPool != null) {
+            mViewPool.clear();
+        }
+    }
+
+    @Override
+    public void onViewAttachedToWindow(ViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+        // 瀑布流下头布局、脚布局占满一行
+        if (holder instanceof FootViewHolder || FixedViewSlots.isFixedViewType(holder.getItemViewType())) {
+            ViewGroup.LayoutParams params = holder.itemView.getLayoutParams();
+            if (params instanceof StaggeredGridLayoutManager.LayoutParams) {
+                ((StaggeredGridLayoutManager.LayoutParams) params).setFullSpan(true);
+            }
+        }
     }
 
 
     // 清空数据源
     public void clearAll() {
+        cancelPendingDiff();
+        if (mFilter != null) {
+            mFilter.reset();
+        }
+        // 取消diff和丢弃过滤后可以应用暂存的修改
+        mMutationBatcher.resume();
+        int itemCount = mDatas.size();
+        if (itemCount == 0) {
+            return;
+        }
         mDatas.clear();
-        notifyDataSetChanged();
+        notifyItemRangeRemoved(mHeaders.size(), itemCount);
+    }
+
+    // 提交新的数据源，在后台线程计算差异后只刷新变化的item，脚布局不参与diff
+    // 计算期间再次提交或调用clearAll，之前的结果会被丢弃；调用addData则等diff应用后再追加
+    public void submitList(List<T> newList) {
+        List<T> newData = newList == null ? new ArrayList<T>() : new ArrayList<>(newList);
+        if (mSortedOrder != null) {
+            Collections.sort(newData, mSortedOrder.getComparator());
+        }
+        if (isFiltering()) {
+            // 过滤时替换完整数据，过滤结果和当前显示的数据做diff
+            mFilter.replaceSource(newData);
+            return;
+        }
+        if (mDatas.isEmpty() || newData.isEmpty()) {
+            // 有一边为空时不需要diff
+            clearAll();
+            addData(newData);
+            return;
+        }
+        mPendingAppends.clear();
+        mPendingPrepends.clear();
+        getDiffer().submit(new ArrayList<>(mDatas), newData);
+    }
+
+    /**
+     * 开启有序模式，传null关闭；开启时会先对已有数据排序
+     * 之后addData、prependData、submitList和post系列的修改都按comparator排序，插入时二分查找位置，
+     * 一批数据一次合并，只通知插入、移动和变化的位置，脚布局始终在最后；postUpdate修改排序字段时item会移动到新位置
+     * 不支持窗口模式
+     */
+    public void setSortComparator(Comparator<? super T> comparator) {
+        if (comparator == null) {
+            mSortedOrder = null;
+            return;
+        }
+        checkNotWindowed();
+        mSortedOrder = new SortedOrder<>(comparator);
+        if (isFiltering()) {
+            List<T> source = new ArrayList<>(mFilter.getSource());
+            Collections.sort(source, comparator);
+            mFilter.replaceSource(source);
+        } else if (!mSortedOrder.isSorted(mDatas)) {
+            Collections.sort(mDatas, comparator);
+            notifyItemRangeChanged(mHeaders.size(), mDatas.size());
+        }
+    }
+
+    // 设置submitList比较item的回调
+    public void setItemDiffCallback(ItemDiffCallback<T> callback) {
+        getDiffer().setItemCallback(callback);
+    }
+
+    // 设置submitList计算diff的线程池，默认使用内部的后台线程池
+    public void setDiffExecutor(Executor executor) {
+        getDiffer().setExecutor(executor);
+    }
+
+    private ListDiffer<T> getDiffer() {
+        if (mDiffer == null) {
+            mDiffer = new ListDiffer<>(new ListDiffer.Callback<T>() {
+                @Override
+                public void onDiffCalculated(List<T> newList, DiffUtil.DiffResult result) {
+                    mDatas.clear();
+                    mDatas.addAll(newList);
+                    // diff只覆盖数据区间，加上头布局的偏移，脚布局的位置随数据自然移动
+                    result.dispatchUpdatesTo(new OffsetListUpdateCallback(LoadMoreLinearBaseAdapter.this, mHeaders.size()));
+                    if (!mPendingPrepends.isEmpty()) {
+                        List<T> prepends = new ArrayList<>(mPendingPrepends);
+                        mPendingPrepends.clear();
+                        prependData(prepends);
+                    }
+                    if (!mPendingAppends.isEmpty()) {
+                        List<T> appends = new ArrayList<>(mPendingAppends);
+                        mPendingAppends.clear();
+                        addData(appends);
+                    }
+                    // diff期间开始的过滤等diff应用后再计算
+                    if (mFilter != null && mFilter.isActive() && !mFilter.isFiltering()) {
+                        mFilter.update();
+                    }
+                    // diff期间暂存的post系列修改
+                    mMutationBatcher.resume();
+                }
+            });
+        }
+        return mDiffer;
+    }
+
+    // 设置搜索时取出item文本的方法，需要在setFilterQuery之前调用
+    public void setFilterTextExtractor(ItemTextExtractor<T> extractor) {
+        getFilter().setTextExtractor(extractor);
+        if (isFiltering()) {
+            applyFilter();
+        }
+    }
+
+    /**
+     * 按搜索词过滤，为空时清除搜索词；每个词都要是item文本中某个词的前缀才显示
+     * 在后台线程用索引计算，还没完成的上一次过滤会被取消，结果只通知变化的区间
+     * 过滤期间addData、prependData和submitList修改的是完整数据，post系列的修改等清除过滤后再应用
+     */
+    public void setFilterQuery(CharSequence query) {
+        checkNotWindowed();
+        getFilter().setQuery(query);
+        applyFilter();
+    }
+
+    // 按条件过滤，和搜索词同时生效，为空时清除条件
+    public void setFilterPredicate(ItemPredicate<T> predicate) {
+        checkNotWindowed();
+        getFilter().setPredicate(predicate);
+        applyFilter();
+    }
+
+    // 清除搜索词和过滤条件，立即显示完整数据
+    public void clearFilter() {
+        if (mFilter != null) {
+            mFilter.clear();
+        }
+    }
+
+    // 是否正在显示过滤结果
+    public boolean isFiltering() {
+        return mFilter != null && mFilter.isFiltering();
+    }
+
+    // 未过滤的完整数据，没有过滤时和getmDatas相同
+    public List<T> getUnfilteredData() {
+        return isFiltering() ? mFilter.getSource() : mDatas;
+    }
+
+    // 设置过滤使用的线程池，默认使用内部的后台线程池
+    public void setFilterExecutor(Executor executor) {
+        getFilter().setExecutor(executor);
+    }
+
+    private void applyFilter() {
+        if (mDiffer != null && mDiffer.isPending()) {
+            return;
+        }
+        mFilter.update();
+    }
+
+    private ListFilter<T> getFilter() {
+        if (mFilter == null) {
+            mFilter = new ListFilter<>(new ListFilter.Target<T>() {
+                @Override
+                public List<T> getData() {
+                    return mDatas;
+                }
+
+                @Override
+                public ItemDiffCallback<T> getItemCallback() {
+                    return getDiffer().getItemCallback();
+                }
+
+                @Override
+                public ListUpdateCallback getUpdateCallback() {
+                    return new OffsetListUpdateCallback(LoadMoreLinearBaseAdapter.this, mHeaders.size());
+                }
+
+                @Override
+                public void onCleared() {
+                    // 过滤期间暂存的post系列修改
+                    mMutationBatcher.resume();
+                }
+            });
+        }
+        return mFilter;
+    }
+
+    /**
+     * 设置分页数据源，之后通过refresh和loadMore加载，数据和加载状态由Adapter自己维护
+     *
+     * @param source     分页数据源
+     * @param initialKey 第一页的key
+     * @param executor   加载使用的线程池，为空时使用内部的后台线程池
+     */
+    public <Key> void setPagedSource(PagedSource<Key, T> source, Key initialKey, Executor executor) {
+        if (mPagedLoader != null) {
+            mPagedLoader.cancel();
+        }
+        mPagedLoader = new PagedLoader<>(source, initialKey, mLoadStateMachine, new PagedLoader.Target<T>() {
+            @Override
+            public void replaceData(List<T> data, Object key) {
+                mCachedPages.clear();
+                cachePage(data);
+                if (mWindowedDatas == null) {
+                    submitList(data);
+                    return;
+                }
+                // 窗口模式下数据中有占位，不做diff
+                clearAll();
+                appendPage(data, key);
+            }
+
+            @Override
+            public void appendData(List<T> data, Object key) {
+                cachePage(data);
+                appendPage(data, key);
+            }
+        }, executor, mPageSize);
+    }
+
+    public <Key> void setPagedSource(PagedSource<Key, T> source, Key initialKey) {
+        setPagedSource(source, initialKey, null);
+    }
+
+    // 设置分页加载的每页数量
+    public void setPageSize(int pageSize) {
+        mPageSize = pageSize;
+        if (mPagedLoader != null) {
+            mPagedLoader.setPageSize(pageSize);
+        }
+    }
+
+    // 取消正在进行的加载，从第一页重新加载
+    public void refresh() {
+        checkPagedSource().refresh();
+        restoreFromDiskCache();
+    }
+
+    /**
+     * 设置前几页的磁盘缓存，列表为空时refresh会先显示缓存，新数据到达后通过diff替换
+     * 每次加载到缓存范围内的页都会在后台线程写入缓存
+     */
+    public void setPageDiskCache(PageDiskCache<T> cache) {
+        mPageDiskCache = cache;
+    }
+
+    // 列表为空时在后台读取缓存，读到时如果新数据还没到就先显示缓存
+    private void restoreFromDiskCache() {
+        final PageDiskCache<T> cache = mPageDiskCache;
+        if (cache == null || !mDatas.isEmpty()) {
+            return;
+        }
+        AdapterExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<List<T>> pages = cache.read();
+                if (pages == null || pages.isEmpty()) {
+                    return;
+                }
+                AdapterExecutors.mainHandler().post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!mDatas.isEmpty() || mPagedLoader == null || !mPagedLoader.isRunning()) {
+                            return;
+                        }
+                        List<T> cached = new ArrayList<>();
+                        for (List<T> page : pages) {
+                            cached.addAll(page);
+                        }
+                        addData(cached);
+                    }
+                });
+            }
+        });
+    }
+
+    // 记录缓存范围内的页，并在后台写入
+    private void cachePage(List<T> data) {
+        if (mPageDiskCache == null || mCachedPages.size() >= mPageDiskCache.getMaxPages()) {
+            return;
+        }
+        mCachedPages.add(new ArrayList<>(data));
+        mPageDiskCache.writeAsync(new ArrayList<>(mCachedPages), AdapterExecutors.background());
+    }
+
+    // 加载下一页，可以直接在OnLoadMoreListener.onLoadMore中调用
+    public void loadMore() {
+        checkPagedSource().loadMore();
+    }
+
+    /**
+     * 开启窗口模式，已加载的页超出预算后，离当前位置最远的页会被淘汰为占位，滑回时从分页数据源重新加载
+     * 需要先设置分页数据源
+     *
+     * @param maxResidentItems 最多保留在内存中的item数
+     */
+    public void setWindowedMode(int maxResidentItems) {
+        enableWindowedMode(null, maxResidentItems);
+    }
+
+    /**
+     * 开启窗口模式，按估算的内存计算预算
+     *
+     * @param estimator       估算单个item占用的内存
+     * @param maxResidentSize 最多保留在内存中的总大小
+     */
+    public void setWindowedMode(ItemSizeEstimator<T> estimator, long maxResidentSize) {
+        enableWindowedMode(estimator, maxResidentSize);
+    }
+
+    private void enableWindowedMode(ItemSizeEstimator<T> estimator, long budget) {
+        checkPagedSource();
+        if (mSortedOrder != null) {
+            throw new IllegalStateException("windowed mode is not supported in sorted mode");
+        }
+        WindowedList<T> windowed = new WindowedList<>(estimator, budget);
+        // 已有的数据不知道key，作为不可淘汰的一页
+        windowed.addAll(mDatas);
+        mDatas = windowed;
+        mWindowedDatas = windowed;
+    }
+
+    // 追加一页数据，窗口模式下记录这一页的key
+    private void appendPage(List<T> data, Object key) {
+        if (mWindowedDatas == null || data.isEmpty() || (mDiffer != null && mDiffer.isPending())) {
+            addData(data);
+            return;
+        }
+        int positionStart = mDatas.size();
+        mWindowedDatas.appendPage(new ArrayList<>(data), key, true);
+        notifyItemRangeInserted(mHeaders.size() + positionStart, data.size());
+    }
+
+    /**
+     * 窗口模式下绑定数据时调用：占位所在的页触发重新加载，超出预算时安排一次淘汰
+     *
+     * @return 该位置是否是占位
+     */
+    private boolean onWindowedPositionBound(int position) {
+        mLastBoundPosition = position;
+        final WindowedList.Page<T> page = mWindowedDatas.findPage(position);
+        if (page.isEvicted() && !page.loading) {
+            page.loading = true;
+            mPagedLoader.reload(page.key, new PagedLoader.ReloadCallback<T>() {
+                @Override
+                public void onReloaded(List<T> data, Exception error) {
+                    if (!mWindowedDatas.contains(page)) {
+                        return;
+                    }
+                    if (error != null) {
+                        // 下次绑定时再重试
+                        page.loading = false;
+                        return;
+                    }
+                    // 数量不一致时保持占位，下次绑定时再重试
+                    if (mWindowedDatas.restore(page, data)) {
+                        notifyItemRangeChanged(mHeaders.size() + page.start, page.size);
+                    }
+                }
+            });
+        }
+        if (!mTrimScheduled && mWindowedDatas.isOverBudget()) {
+            // 绑定过程中不能通知刷新，放到下一个消息里淘汰
+            mTrimScheduled = true;
+            AdapterExecutors.mainHandler().post(mTrimRunnable);
+        }
+        return page.isEvicted();
+    }
+
+    private final Runnable mTrimRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mTrimScheduled = false;
+            if (mWindowedDatas == null) {
+                return;
+            }
+            List<WindowedList.Page<T>> evicted = mWindowedDatas.trim(mLastBoundPosition);
+            for (int i = 0; i < evicted.size(); i++) {
+                WindowedList.Page<T> page = evicted.get(i);
+                // 缓存中的ViewHolder可能还持有旧数据，标记为需要重新绑定
+                notifyItemRangeChanged(mHeaders.size() + page.start, page.size);
+            }
+        }
+    };
+
+    // 窗口模式下的页只能追加
+    private void checkNotWindowed() {
+        if (mWindowedDatas != null) {
+            throw new IllegalStateException("only appends are supported in windowed mode");
+        }
+    }
+
+    private PagedLoader<?, T> checkPagedSource() {
+        if (mPagedLoader == null) {
+            throw new IllegalStateException("call setPagedSource() first");
+        }
+        return mPagedLoader;
+    }
+
+    private void cancelPendingDiff() {
+        if (mDiffer != null) {
+            mDiffer.cancel();
+        }
+        mPendingAppends.clear();
+        mPendingPrepends.clear();
     }
 
 
     public abstract void bind(ViewHolder holder, T t, int position);
 
+    // 局部刷新，payloads为updateItem或diff产生的变化，默认整体重新绑定
+    public void bindPartial(ViewHolder holder, T t, int position, List<Object> payloads) {
+        bind(holder, t, position);
+    }
+
+    // 窗口模式下绑定被淘汰的占位，数据重新加载后会再次调用bind
+    public void bindPlaceholder(ViewHolder holder, int position) {
+    }
+
     @Override
     public void onClick(View v) {
-        int position = mRecyclerView.getChildAdapterPosition(v);
+        int position = getDataPosition(mRecyclerView.getChildAdapterPosition(v));
+        if (position == RecyclerView.NO_POSITION) {
+            // 已经被移除的item
+            return;
+        }
         T t = mDatas.get(position);
+        if (t == null && mWindowedDatas != null) {
+            // 窗口模式下被淘汰的占位，还没有重新加载出数据
+            return;
+        }
         if (mListener != null) {
             mListener.onClick(t, position);
         }
@@ -207,19 +1108,28 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
     // 脚布局ViewHoldr类
     private static class FootViewHolder extends LoadMoreLinearBaseAdapter.ViewHolder {
 
+        private final FooterStateBinder mStateBinder;
+
         FootViewHolder(View itemView) {
             super(itemView);
+            mStateBinder = new FooterStateBinder(itemView);
+        }
+
+        void bindState(LoadingState state) {
+            mStateBinder.bind(state);
         }
     }
 
 
     // ViewHoldr类
     public static class ViewHolder extends RecyclerView.ViewHolder {
-        private Map<Integer, View> mCacheViews;
+        private IntObjectCache<View> mCacheViews;
+        // 绑定时由Adapter设置，用于统计缓存命中率
+        private AdapterMetrics mMetrics;
 
         public ViewHolder(View itemView) {
             super(itemView);
-            mCacheViews = new HashMap<>();
+            mCacheViews = new IntObjectCache<>();
         }
 
 
@@ -261,13 +1171,17 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
         }
 
         public <T extends View> T getView(int resId) {
-            View view = null;
-            if (mCacheViews.containsKey(resId)) {
-                view = mCacheViews.get(resId);
-            } else {
+            // 命中时只有一次查找，没有装箱
+            View view = mCacheViews.get(resId);
+            // 找不到的id也缓存为null，之后不再遍历View树
+            boolean hit = view != null || mCacheViews.containsKey(resId);
+            if (!hit) {
                 view = itemView.findViewById(resId);
                 mCacheViews.put(resId, view);
             }
+            if (mMetrics != null) {
+                mMetrics.onViewCacheLookup(hit);
+            }
             return (T) view;
         }
     }
@@ -279,10 +1193,47 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
      * @param loadState 0.正在加载 1.加载完成 2.加载到底
      */
     public void setLoadState(LoadingState loadState) {
-        this.loadState = loadState.getmState();
-        notifyDataSetChanged();
+        mLoadStateMachine.moveTo(loadState);
     }
 
+    // 对外提供加载状态机，交给OnLoadMoreListener后可以避免重复加载
+    public LoadStateMachine getLoadStateMachine() {
+        return mLoadStateMachine;
+    }
+
+    // 设置顶部加载指示器的状态
+    public void setLoadPreviousState(LoadingState loadState) {
+        mLoadPreviousStateMachine.moveTo(loadState);
+    }
+
+    // 对外提供顶部加载的状态机，交给OnLoadMoreListener.setLoadPreviousStateMachine后可以避免重复加载
+    public LoadStateMachine getLoadPreviousStateMachine() {
+        return mLoadPreviousStateMachine;
+    }
+
+
+    /**
+     * 开启运行指标，传null关闭，通过AdapterMetrics.snapshot读取
+     */
+    public void setMetrics(AdapterMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public AdapterMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 关联卡顿监控，慢帧会标记这一帧里的加载状态切换、添加数据和创建ViewHolder，传null取消关联
+     * JankMonitor本身还需要通过RecyclerView.addOnScrollListener添加
+     */
+    public void setJankMonitor(JankMonitor jankMonitor) {
+        mJankMonitor = jankMonitor;
+    }
+
+    public JankMonitor getJankMonitor() {
+        return mJankMonitor;
+    }
 
     // 对外提供获取数据源的方法
     public List<T> getmDatas() {
@@ -295,7 +1246,7 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
     }
 
 
-    // 设置Item的点击事件
+    // 设置Item的点击事件，窗口模式下点击还在重新加载的占位不会回调
     public void setOnItemClickListener(OnItemClickListener<T> listener) {
         this.mListener = listener;
     }
@@ -305,6 +1256,11 @@ public abstract class LoadMoreLinearBaseAdapter<T> extends RecyclerView.Adapter<
         this.mErrorListener = mErrorListener;
     }
 
+    // 顶部加载指示器处于错误状态时的点击事件
+    public void setOnLoadPreviousErrorListener(OnFooterErrorListener listener) {
+        this.mLoadPreviousErrorListener = listener;
+    }
+
     public interface OnItemClickListener<T> {
         // 传递当前点击的对象（List对应位置的数据）与位置
         void onClick(T t, int position);
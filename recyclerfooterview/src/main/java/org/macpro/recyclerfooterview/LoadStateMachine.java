@@ -0,0 +1,94 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 加载更多的状态机，只在主线程使用
+ * 正在加载时重复的触发会被合并，加载到底或无数据时的触发会被忽略
+ */
+public class LoadStateMachine {
+
+    // 当前状态，默认为加载完成
+    private LoadingState mState = LoadingState.LOAD_COMPLETE;
+    // 被忽略的触发次数（包含被合并的）
+    private int mSuppressedCount;
+    // 正在加载时被合并的触发次数
+    private int mCoalescedCount;
+    // 状态变化的监听
+    private final List<OnStateChangedListener> mListeners = new ArrayList<>(2);
+
+
+    /**
+     * 请求加载下一页
+     *
+     * @return true表示可以开始加载，状态已切换为正在加载；false表示该次触发被忽略
+     */
+    public boolean requestLoad() {
+        switch (mState) {
+            case LOADING:
+                mCoalescedCount++;
+                mSuppressedCount++;
+                return false;
+            case LOAD_END:
+            case LOAD_NODATA:
+                mSuppressedCount++;
+                return false;
+            default:
+                moveTo(LoadingState.LOADING);
+                return true;
+        }
+    }
+
+    // 切换状态，状态相同时不做任何事
+    public void moveTo(LoadingState state) {
+        if (state == null || state == mState) {
+            return;
+        }
+        LoadingState oldState = mState;
+        mState = state;
+        for (int i = 0; i < mListeners.size(); i++) {
+            mListeners.get(i).onStateChanged(oldState, state);
+        }
+    }
+
+    public LoadingState getState() {
+        return mState;
+    }
+
+    // 是否正在加载
+    public boolean isLoading() {
+        return mState == LoadingState.LOADING;
+    }
+
+    // 被忽略的触发次数（包含被合并的）
+    public int getSuppressedCount() {
+        return mSuppressedCount;
+    }
+
+    // 正在加载时被合并的触发次数
+    public int getCoalescedCount() {
+        return mCoalescedCount;
+    }
+
+    // 清零统计
+    public void resetCounters() {
+        mSuppressedCount = 0;
+        mCoalescedCount = 0;
+    }
+
+    public void addOnStateChangedListener(OnStateChangedListener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    public void removeOnStateChangedListener(OnStateChangedListener listener) {
+        mListeners.remove(listener);
+    }
+
+
+    public interface OnStateChangedListener {
+        void onStateChanged(LoadingState oldState, LoadingState newState);
+    }
+}
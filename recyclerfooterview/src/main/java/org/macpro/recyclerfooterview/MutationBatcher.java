@@ -0,0 +1,228 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.BatchingListUpdateCallback;
+import android.support.v7.util.ListUpdateCallback;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 线程安全的数据修改队列，任意线程提交，在主线程下一帧开始时一次性应用
+ * 同一帧内相邻的插入、删除、修改会合并成一个区间通知，整个批次只触发一次布局
+ */
+final class MutationBatcher<T> implements Choreographer.FrameCallback {
+
+    interface Target<T> {
+        // 是否可以应用修改，如正在diff时返回false，修改会暂存到调用resume为止
+        boolean isReady();
+
+        // 要修改的数据源
+        List<T> getData();
+
+        // 删除、修改时查找同一个item
+        ItemDiffCallback<T> getItemCallback();
+
+        // 数据区间变化的通知，需要自己加上头布局的偏移
+        ListUpdateCallback getUpdateCallback();
+
+        // 有序模式的排序，为空时按提交的位置修改
+        SortedOrder<T> getSortedOrder();
+    }
+
+    private static final int APPEND = 0;
+    private static final int INSERT = 1;
+    private static final int REMOVE = 2;
+    private static final int UPDATE = 3;
+
+    static final class Op<T> {
+        final int type;
+        final int position;
+        final T item;
+        final List<T> items;
+
+        Op(int type, int position, T item, List<T> items) {
+            this.type = type;
+            this.position = position;
+            this.item = item;
+            this.items = items;
+        }
+    }
+
+    private final Target<T> mTarget;
+    private final Object mLock = new Object();
+    // 以下两个字段由mLock保护
+    private List<Op<T>> mQueue = new ArrayList<>();
+    private boolean mScheduled;
+    // 帧回调时Target还没准备好，修改暂存在队列中，等resume再安排，只在主线程访问
+    private boolean mParked;
+
+    private final Runnable mScheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(MutationBatcher.this);
+        }
+    };
+
+    MutationBatcher(Target<T> target) {
+        mTarget = target;
+    }
+
+    void append(List<T> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        enqueue(MutationBatcher.<T>appendOp(new ArrayList<>(items)));
+    }
+
+    void insert(int position, T item) {
+        enqueue(insertOp(position, item));
+    }
+
+    void remove(T item) {
+        enqueue(removeOp(item));
+    }
+
+    void update(T item) {
+        enqueue(updateOp(item));
+    }
+
+    private void enqueue(Op<T> op) {
+        synchronized (mLock) {
+            mQueue.add(op);
+            if (mScheduled) {
+                return;
+            }
+            mScheduled = true;
+        }
+        // Choreographer只能在主线程获取
+        if (AdapterExecutors.isMainThread()) {
+            mScheduleFrame.run();
+        } else {
+            AdapterExecutors.mainHandler().post(mScheduleFrame);
+        }
+    }
+
+    // Target重新准备好时在主线程调用，有暂存的修改时安排到下一帧应用
+    void resume() {
+        if (!mParked) {
+            return;
+        }
+        mParked = false;
+        mScheduleFrame.run();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mTarget.isReady()) {
+            // 不每帧轮询，过滤可能持续很久，等resume再安排
+            mParked = true;
+            return;
+        }
+        List<Op<T>> ops;
+        synchronized (mLock) {
+            ops = mQueue;
+            mQueue = new ArrayList<>();
+            mScheduled = false;
+        }
+        apply(ops, mTarget.getData(), mTarget.getItemCallback(), mTarget.getSortedOrder(), mTarget.getUpdateCallback());
+    }
+
+    static <T> void apply(List<Op<T>> ops, List<T> data, ItemDiffCallback<T> itemCallback,
+                          ListUpdateCallback callback) {
+        apply(ops, data, itemCallback, null, callback);
+    }
+
+    // 按提交顺序修改数据，通知经过合并后发出；有序模式下插入的位置由排序决定
+    static <T> void apply(List<Op<T>> ops, List<T> data, ItemDiffCallback<T> itemCallback,
+                          SortedOrder<T> sortedOrder, ListUpdateCallback callback) {
+        BatchingListUpdateCallback batching = new BatchingListUpdateCallback(callback);
+        for (int i = 0; i < ops.size(); i++) {
+            Op<T> op = ops.get(i);
+            if (sortedOrder != null) {
+                applySorted(op, data, itemCallback, sortedOrder, batching);
+                continue;
+            }
+            switch (op.type) {
+                case APPEND: {
+                    int positionStart = data.size();
+                    data.addAll(op.items);
+                    batching.onInserted(positionStart, op.items.size());
+                    break;
+                }
+                case INSERT: {
+                    // 提交时的位置可能已经超出范围，超出时插入到最后
+                    int position = Math.max(0, Math.min(op.position, data.size()));
+                    data.add(position, op.item);
+                    batching.onInserted(position, 1);
+                    break;
+                }
+                case REMOVE: {
+                    int position = indexOf(data, op.item, itemCallback);
+                    if (position >= 0) {
+                        data.remove(position);
+                        batching.onRemoved(position, 1);
+                    }
+                    break;
+                }
+                case UPDATE: {
+                    int position = indexOf(data, op.item, itemCallback);
+                    if (position >= 0) {
+                        T oldItem = data.set(position, op.item);
+                        if (!itemCallback.areContentsTheSame(oldItem, op.item)) {
+                            batching.onChanged(position, 1, itemCallback.getChangePayload(oldItem, op.item));
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        batching.dispatchLastEvent();
+    }
+
+    // 有序模式：追加和插入都按排序合并，修改后重新定位
+    private static <T> void applySorted(Op<T> op, List<T> data, ItemDiffCallback<T> itemCallback,
+                                        SortedOrder<T> sortedOrder, ListUpdateCallback callback) {
+        switch (op.type) {
+            case APPEND:
+                sortedOrder.merge(data, op.items, callback);
+                break;
+            case INSERT:
+                sortedOrder.merge(data, Collections.singletonList(op.item), callback);
+                break;
+            case REMOVE:
+                sortedOrder.remove(data, op.item, itemCallback, callback);
+                break;
+            case UPDATE:
+                sortedOrder.update(data, op.item, itemCallback, callback);
+                break;
+        }
+    }
+
+    private static <T> int indexOf(List<T> data, T item, ItemDiffCallback<T> itemCallback) {
+        for (int i = 0; i < data.size(); i++) {
+            T t = data.get(i);
+            if (t != null && itemCallback.areItemsTheSame(t, item)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static <T> Op<T> appendOp(List<T> items) {
+        return new Op<T>(APPEND, 0, null, items);
+    }
+
+    static <T> Op<T> insertOp(int position, T item) {
+        return new Op<>(INSERT, position, item, null);
+    }
+
+    static <T> Op<T> removeOp(T item) {
+        return new Op<>(REMOVE, 0, item, null);
+    }
+
+    static <T> Op<T> updateOp(T item) {
+        return new Op<>(UPDATE, 0, item, null);
+    }
+}
@@ -0,0 +1,38 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * 把数据区间的变化加上头布局的偏移后通知给Adapter
+ */
+final class OffsetListUpdateCallback implements ListUpdateCallback {
+
+    private final RecyclerView.Adapter<?> mAdapter;
+    private final int mOffset;
+
+    OffsetListUpdateCallback(RecyclerView.Adapter<?> adapter, int offset) {
+        mAdapter = adapter;
+        mOffset = offset;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        mAdapter.notifyItemRangeInserted(position + mOffset, count);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        mAdapter.notifyItemRangeRemoved(position + mOffset, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        mAdapter.notifyItemMoved(fromPosition + mOffset, toPosition + mOffset);
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        mAdapter.notifyItemRangeChanged(position + mOffset, count, payload);
+    }
+}
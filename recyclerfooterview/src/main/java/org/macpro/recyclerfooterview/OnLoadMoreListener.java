@@ -1,7 +1,9 @@
 package org.macpro.recyclerfooterview;
 
+import android.os.SystemClock;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 
 /**
  * Created by macpro on 2018/1/16.
@@ -11,25 +13,95 @@ public abstract class OnLoadMoreListener extends RecyclerView.OnScrollListener{
 
     //用来标记是否正在向上滑动
     private boolean isSlidingUpward = false;
+    // 距离末尾还剩多少个item时提前加载，0表示不按item数预加载
+    private int mPrefetchItemCount;
+    // 距离末尾还剩多少屏时提前加载，0表示不按屏数预加载
+    private float mPrefetchScreenCount;
+    // 上次预加载被接受时的item总数，同一页只预加载一次
+    private int mLastPrefetchItemCount = -1;
+    // 加载结束后清除预加载记录，加载失败或刷新后item数不变时还能再次触发
+    private final LoadStateMachine.OnStateChangedListener mPrefetchResetListener = new LoadStateMachine.OnStateChangedListener() {
+        @Override
+        public void onStateChanged(LoadingState oldState, LoadingState newState) {
+            if (oldState == LoadingState.LOADING) {
+                mLastPrefetchItemCount = -1;
+            }
+        }
+    };
+    // 瀑布流查询每列位置时复用的数组，避免每次滑动都分配
+    private int[] mSpanPositions;
+    // 绑定的加载状态机，为空时每次触发都会回调onLoadMore
+    private LoadStateMachine mLoadStateMachine;
+    //用来标记是否正在向下滑动（列表内容向下移动，接近顶部）
+    private boolean isSlidingDownward = false;
+    // 是否开启顶部加载更早的数据
+    private boolean mLoadPreviousEnabled;
+    // 距离顶部还剩多少个item时提前加载更早的数据
+    private int mPrefetchPreviousItemCount;
+    // 上次在顶部预加载时的item总数，同一页只预加载一次
+    private int mLastPreviousItemCount = -1;
+    // 顶部加载的状态机，为空时每次触发都会回调onLoadPrevious
+    private LoadStateMachine mLoadPreviousStateMachine;
+    // 按加载耗时和滑动速度调整每页数量和预加载距离，为空时使用固定的预加载距离
+    private AdaptivePagePolicy mPagePolicy;
+    // 滑动方向上即将显示的item预取，默认关闭
+    private final ScrollAheadPrefetcher mItemPrefetcher = new ScrollAheadPrefetcher(new ScrollAheadPrefetcher.Callback() {
+        @Override
+        public void onPrefetch(int fromPosition, int toPosition) {
+            onPrefetchItems(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onCancel() {
+            onCancelPrefetchItems();
+        }
+    });
+
+
+    public OnLoadMoreListener() {
+    }
+
+    /**
+     * @param prefetchItemCount 距离末尾还剩多少个item时开始加载下一页
+     */
+    public OnLoadMoreListener(int prefetchItemCount) {
+        setPrefetchItemCount(prefetchItemCount);
+    }
+
+    /**
+     * @param loadStateMachine Adapter的加载状态机，正在加载、加载到底或无数据时不再回调onLoadMore
+     */
+    public OnLoadMoreListener(LoadStateMachine loadStateMachine) {
+        setLoadStateMachine(loadStateMachine);
+    }
 
     @Override
     public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
         super.onScrollStateChanged(recyclerView, newState);
 
-        LinearLayoutManager manager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+        if (manager == null) {
+            return;
+        }
 
         // 开始滚动（SCROLL_STATE_FLING），正在滚动(SCROLL_STATE_TOUCH_SCROLL), 已经停止（SCROLL_STATE_IDLE）
 
         // 当不滑动时
         if (newState == RecyclerView.SCROLL_STATE_IDLE) {
             //获取最后一个完全显示的itemPosition
-            int lastItemPosition = manager.findLastCompletelyVisibleItemPosition();
+            int lastItemPosition = findLastVisibleItemPosition(manager, true);
             int itemCount = manager.getItemCount();
 
             // 判断是否滑动到了最后一个item，并且是向上滑动
             if (lastItemPosition == (itemCount - 1) && isSlidingUpward) {
                 //加载更多
-                onLoadMore();
+                dispatchLoadMore(getPrefetchDistance(manager.getChildCount()));
+            }
+
+            // 判断是否滑动到了第一个item，并且是向下滑动
+            if (mLoadPreviousEnabled && isSlidingDownward
+                    && findFirstVisibleItemPosition(manager, true) == 0) {
+                dispatchLoadPrevious();
             }
         }
     }
@@ -39,6 +111,236 @@ public abstract class OnLoadMoreListener extends RecyclerView.OnScrollListener{
         super.onScrolled(recyclerView, dx, dy);
         // 大于0表示正在向上滑动，小于等于0表示停止或向下滑动
         isSlidingUpward = dy > 0;
+        isSlidingDownward = dy < 0;
+
+        if (mItemPrefetcher.isEnabled()) {
+            prefetchItems(recyclerView, dx, dy);
+        }
+
+        if (isSlidingDownward && mLoadPreviousEnabled) {
+            prefetchPrevious(recyclerView);
+            return;
+        }
+
+        // 滑动过程中(包括惯性滑动)判断是否进入预加载区间
+        if (!isSlidingUpward || !isPrefetchEnabled()) {
+            return;
+        }
+        RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+        if (manager == null) {
+            return;
+        }
+        if (mPagePolicy != null && manager.getChildCount() > 0 && manager.getHeight() > 0) {
+            // 用一屏的高度和child数估算滑过的item数
+            mPagePolicy.onScrolled((float) dy * manager.getChildCount() / manager.getHeight());
+        }
+        int itemCount = manager.getItemCount();
+        if (itemCount == mLastPrefetchItemCount) {
+            return;
+        }
+        int lastItemPosition = findLastVisibleItemPosition(manager, false);
+        int prefetchDistance = getPrefetchDistance(manager.getChildCount());
+        if (lastItemPosition >= itemCount - 1 - prefetchDistance) {
+            // 先记录再回调，onLoadMore里同步结束加载时会清除记录；被状态机忽略时不记录
+            int lastPrefetchItemCount = mLastPrefetchItemCount;
+            mLastPrefetchItemCount = itemCount;
+            if (!dispatchLoadMore(prefetchDistance)) {
+                mLastPrefetchItemCount = lastPrefetchItemCount;
+            }
+        }
+    }
+
+    // 按滑动方向和速度回调即将显示的item区间
+    private void prefetchItems(RecyclerView recyclerView, int dx, int dy) {
+        RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+        if (manager == null) {
+            return;
+        }
+        boolean vertical = manager.canScrollVertically();
+        mItemPrefetcher.onScrolled(vertical ? dy : dx,
+                findFirstVisibleItemPosition(manager, false),
+                findLastVisibleItemPosition(manager, false),
+                manager.getItemCount(),
+                vertical ? manager.getHeight() : manager.getWidth(),
+                SystemClock.uptimeMillis());
+    }
+
+    // 向顶部滑动时判断是否进入顶部的预加载区间
+    private void prefetchPrevious(RecyclerView recyclerView) {
+        RecyclerView.LayoutManager manager = recyclerView.getLayoutManager();
+        if (manager == null) {
+            return;
+        }
+        int itemCount = manager.getItemCount();
+        if (itemCount == mLastPreviousItemCount) {
+            return;
+        }
+        int firstItemPosition = findFirstVisibleItemPosition(manager, false);
+        if (firstItemPosition != RecyclerView.NO_POSITION && firstItemPosition <= mPrefetchPreviousItemCount) {
+            mLastPreviousItemCount = itemCount;
+            dispatchLoadPrevious();
+        }
+    }
+
+    // 经过状态机判断后再回调onLoadPrevious
+    private void dispatchLoadPrevious() {
+        if (mLoadPreviousStateMachine != null && !mLoadPreviousStateMachine.requestLoad()) {
+            return;
+        }
+        onLoadPrevious();
+    }
+
+    // 经过状态机判断后再回调onLoadMore，prefetchDistance为这次触发实际使用的预加载距离，返回是否回调了
+    private boolean dispatchLoadMore(int prefetchDistance) {
+        if (mLoadStateMachine != null && !mLoadStateMachine.requestLoad()) {
+            return false;
+        }
+        if (mPagePolicy != null) {
+            onLoadMore(mPagePolicy.getPageSize(), prefetchDistance);
+        } else {
+            onLoadMore();
+        }
+        return true;
+    }
+
+    // 获取最后一个可见item的位置，支持LinearLayoutManager、GridLayoutManager和StaggeredGridLayoutManager
+    private int findLastVisibleItemPosition(RecyclerView.LayoutManager manager, boolean completely) {
+        // GridLayoutManager继承自LinearLayoutManager
+        if (manager instanceof LinearLayoutManager) {
+            LinearLayoutManager linearManager = (LinearLayoutManager) manager;
+            return completely ? linearManager.findLastCompletelyVisibleItemPosition()
+                    : linearManager.findLastVisibleItemPosition();
+        }
+        if (manager instanceof StaggeredGridLayoutManager) {
+            StaggeredGridLayoutManager staggeredManager = (StaggeredGridLayoutManager) manager;
+            int spanCount = staggeredManager.getSpanCount();
+            if (mSpanPositions == null || mSpanPositions.length != spanCount) {
+                mSpanPositions = new int[spanCount];
+            }
+            int[] positions = completely ? staggeredManager.findLastCompletelyVisibleItemPositions(mSpanPositions)
+                    : staggeredManager.findLastVisibleItemPositions(mSpanPositions);
+            int lastPosition = RecyclerView.NO_POSITION;
+            for (int position : positions) {
+                lastPosition = Math.max(lastPosition, position);
+            }
+            return lastPosition;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    // 获取第一个可见item的位置
+    private int findFirstVisibleItemPosition(RecyclerView.LayoutManager manager, boolean completely) {
+        if (manager instanceof LinearLayoutManager) {
+            LinearLayoutManager linearManager = (LinearLayoutManager) manager;
+            return completely ? linearManager.findFirstCompletelyVisibleItemPosition()
+                    : linearManager.findFirstVisibleItemPosition();
+        }
+        if (manager instanceof StaggeredGridLayoutManager) {
+            StaggeredGridLayoutManager staggeredManager = (StaggeredGridLayoutManager) manager;
+            int spanCount = staggeredManager.getSpanCount();
+            if (mSpanPositions == null || mSpanPositions.length != spanCount) {
+                mSpanPositions = new int[spanCount];
+            }
+            int[] positions = completely ? staggeredManager.findFirstCompletelyVisibleItemPositions(mSpanPositions)
+                    : staggeredManager.findFirstVisibleItemPositions(mSpanPositions);
+            int firstPosition = RecyclerView.NO_POSITION;
+            for (int position : positions) {
+                if (position != RecyclerView.NO_POSITION
+                        && (firstPosition == RecyclerView.NO_POSITION || position < firstPosition)) {
+                    firstPosition = position;
+                }
+            }
+            return firstPosition;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    // 按item数和屏数计算预加载距离，取较大值；一屏的item数用当前显示的child数估算
+    private int getPrefetchDistance(int visibleItemCount) {
+        int screenDistance = (int) Math.ceil(mPrefetchScreenCount * visibleItemCount);
+        int distance = Math.max(mPrefetchItemCount, screenDistance);
+        return mPagePolicy != null ? Math.max(distance, mPagePolicy.getPrefetchDistance()) : distance;
+    }
+
+    private boolean isPrefetchEnabled() {
+        return mPrefetchItemCount > 0 || mPrefetchScreenCount > 0 || mPagePolicy != null;
+    }
+
+    // 设置距离末尾还剩多少个item时提前加载
+    public void setPrefetchItemCount(int prefetchItemCount) {
+        this.mPrefetchItemCount = Math.max(0, prefetchItemCount);
+    }
+
+    // 设置距离末尾还剩多少屏时提前加载
+    public void setPrefetchScreenCount(float prefetchScreenCount) {
+        this.mPrefetchScreenCount = Math.max(0, prefetchScreenCount);
+    }
+
+    // 绑定Adapter的加载状态机
+    public void setLoadStateMachine(LoadStateMachine loadStateMachine) {
+        if (mPagePolicy != null) {
+            // 加载耗时从新的状态机统计
+            if (mLoadStateMachine != null) {
+                mLoadStateMachine.removeOnStateChangedListener(mPagePolicy);
+            }
+            if (loadStateMachine != null) {
+                loadStateMachine.addOnStateChangedListener(mPagePolicy);
+            }
+        }
+        if (mLoadStateMachine != null) {
+            mLoadStateMachine.removeOnStateChangedListener(mPrefetchResetListener);
+        }
+        if (loadStateMachine != null) {
+            loadStateMachine.addOnStateChangedListener(mPrefetchResetListener);
+        }
+        this.mLoadStateMachine = loadStateMachine;
+        mLastPrefetchItemCount = -1;
+    }
+
+    /**
+     * 设置自适应的每页数量和预加载距离，传null关闭
+     * 开启后onLoadMore(int, int)会收到推荐值，需要同时绑定加载状态机来统计加载耗时
+     */
+    public void setPagePolicy(AdaptivePagePolicy pagePolicy) {
+        if (mLoadStateMachine != null) {
+            if (mPagePolicy != null) {
+                mLoadStateMachine.removeOnStateChangedListener(mPagePolicy);
+            }
+            if (pagePolicy != null) {
+                mLoadStateMachine.addOnStateChangedListener(pagePolicy);
+            }
+        }
+        this.mPagePolicy = pagePolicy;
+    }
+
+    // 开启顶部加载更早的数据，滑到顶部时回调onLoadPrevious
+    public void setLoadPreviousEnabled(boolean enabled) {
+        this.mLoadPreviousEnabled = enabled;
+    }
+
+    // 设置距离顶部还剩多少个item时提前加载更早的数据，包括头布局
+    public void setPrefetchPreviousItemCount(int prefetchItemCount) {
+        this.mPrefetchPreviousItemCount = Math.max(0, prefetchItemCount);
+    }
+
+    // 绑定Adapter顶部加载的状态机
+    public void setLoadPreviousStateMachine(LoadStateMachine loadStateMachine) {
+        this.mLoadPreviousStateMachine = loadStateMachine;
+    }
+
+    /**
+     * 开启滑动预取，滑动时通过onPrefetchItems回调即将显示的item区间
+     *
+     * @param minItemCount 每次至少预取的item数，0表示关闭
+     * @param maxItemCount 快速滑动时最多预取的item数
+     */
+    public void setItemPrefetchCount(int minItemCount, int maxItemCount) {
+        mItemPrefetcher.setItemCount(minItemCount, maxItemCount);
+    }
+
+    // 设置两次预取回调之间的最小间隔，默认100毫秒
+    public void setItemPrefetchIntervalMillis(long intervalMillis) {
+        mItemPrefetcher.setMinIntervalMillis(intervalMillis);
     }
 
     /**
@@ -46,4 +348,33 @@ public abstract class OnLoadMoreListener extends RecyclerView.OnScrollListener{
      */
     public abstract void onLoadMore();
 
+    /**
+     * 开启setPagePolicy后的加载更多回调，默认忽略推荐值并回调onLoadMore()
+     *
+     * @param pageSize         推荐的本次加载数量
+     * @param prefetchDistance 这次触发实际使用的预加载距离，是推荐值与固定的item数、屏数设置中的较大值
+     */
+    public void onLoadMore(int pageSize, int prefetchDistance) {
+        onLoadMore();
+    }
+
+    /**
+     * 加载更早数据的回调，需要先调用setLoadPreviousEnabled开启，加载完成后通过Adapter.prependData添加
+     */
+    public void onLoadPrevious() {
+    }
+
+    /**
+     * 即将显示的item区间，包含两端，位置为Adapter位置（包括头布局）
+     * 同一位置只回调一次，可以在这里提前加载图片和次要数据，需要先调用setItemPrefetchCount开启
+     */
+    public void onPrefetchItems(int fromPosition, int toPosition) {
+    }
+
+    /**
+     * 滑动方向反转，之前回调的区间暂时不会显示，可以取消还没有完成的预取
+     */
+    public void onCancelPrefetchItems() {
+    }
+
 }
@@ -0,0 +1,265 @@
+package org.macpro.recyclerfooterview;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * 前几页数据的磁盘缓存，打开页面时可以先显示缓存再用新数据替换
+ * 文件格式：magic、版本号、页数、正文长度、正文CRC32，正文为每页的item数和每个item的长度+内容
+ * 读写都是同步方法，需要在后台线程调用
+ */
+public class PageDiskCache<T> {
+
+    private static final int MAGIC = 0x52465643;
+    private static final int VERSION = 1;
+    // magic + 版本号 + 页数 + 正文长度 + CRC32
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8;
+
+    private final File mFile;
+    private final ItemCodec<T> mCodec;
+    // 最多缓存的页数
+    private final int mMaxPages;
+    // 正文最大字节数，超出时丢弃后面的页
+    private final int mMaxBytes;
+    // 等待写入的最新数据，多次写入只保留最后一次
+    private final AtomicReference<Snapshot<T>> mPendingWrite = new AtomicReference<>();
+    // 每次请求写入时递增，按调用的先后给数据编号
+    private final AtomicLong mSequence = new AtomicLong();
+    // 已经写入的数据的编号，由this保护
+    private long mWrittenSequence;
+
+    /**
+     * @param file     缓存文件
+     * @param codec    item编解码
+     * @param maxPages 最多缓存的页数
+     * @param maxBytes 最多占用的字节数（不含文件头）
+     */
+    public PageDiskCache(File file, ItemCodec<T> codec, int maxPages, int maxBytes) {
+        mFile = file;
+        mCodec = codec;
+        mMaxPages = maxPages;
+        mMaxBytes = maxBytes;
+    }
+
+    public int getMaxPages() {
+        return mMaxPages;
+    }
+
+    /**
+     * 读取缓存
+     *
+     * @return 缓存的页，没有缓存或缓存损坏时返回null，损坏的文件会被删除
+     */
+    public synchronized List<List<T>> read() {
+        if (!mFile.isFile()) {
+            return null;
+        }
+        long length = mFile.length();
+        if (length < HEADER_SIZE || length > HEADER_SIZE + (long) mMaxBytes) {
+            mFile.delete();
+            return null;
+        }
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(mFile);
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("unexpected end of file");
+                }
+            }
+            buffer.flip();
+            List<List<T>> pages = decode(buffer);
+            if (pages == null) {
+                mFile.delete();
+            }
+            return pages;
+        } catch (IOException | RuntimeException e) {
+            // 解码器在数据损坏时可能抛出任意运行时异常
+            mFile.delete();
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * 写入缓存，只保留前maxPages页，超出maxBytes时丢弃后面的页
+     * 先写临时文件再重命名，写到一半被杀掉也不会留下损坏的缓存
+     */
+    public void write(List<List<T>> pages) throws IOException {
+        write(pages, mSequence.incrementAndGet());
+    }
+
+    // 线程池有多个线程时，先取到数据的任务可能后写入，编号比已写入的旧时跳过，不覆盖更新的数据
+    private synchronized void write(List<List<T>> pages, long sequence) throws IOException {
+        if (sequence <= mWrittenSequence) {
+            return;
+        }
+        List<byte[]> items = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        int bodySize = 0;
+        for (int i = 0; i < pages.size() && i < mMaxPages; i++) {
+            List<T> page = pages.get(i);
+            int pageBytes = 4;
+            List<byte[]> encoded = new ArrayList<>(page.size());
+            for (T item : page) {
+                byte[] bytes = mCodec.encode(item);
+                encoded.add(bytes);
+                pageBytes += 4 + bytes.length;
+            }
+            if (bodySize + pageBytes > mMaxBytes) {
+                break;
+            }
+            bodySize += pageBytes;
+            items.addAll(encoded);
+            pageSizes.add(page.size());
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(bodySize);
+        int itemIndex = 0;
+        for (int pageSize : pageSizes) {
+            body.putInt(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                byte[] bytes = items.get(itemIndex++);
+                body.putInt(bytes.length);
+                body.put(bytes);
+            }
+        }
+        body.flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, body.limit());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(pageSizes.size()).putInt(bodySize).putLong(crc.getValue());
+        header.flip();
+
+        File temp = new File(mFile.getPath() + ".tmp");
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(temp);
+            FileChannel channel = out.getChannel();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // 只删除没写完的临时文件，上一次成功写入的缓存保持不变
+            closeQuietly(out);
+            out = null;
+            temp.delete();
+            throw e;
+        } finally {
+            closeQuietly(out);
+        }
+        if (!temp.renameTo(mFile)) {
+            temp.delete();
+            throw new IOException("rename failed: " + mFile);
+        }
+        mWrittenSequence = sequence;
+    }
+
+    /**
+     * 在后台线程写入，连续多次调用只会写入最后一次的数据
+     */
+    public void writeAsync(List<List<T>> pages, Executor executor) {
+        if (mPendingWrite.getAndSet(new Snapshot<>(pages, mSequence.incrementAndGet())) != null) {
+            // 已经有写任务在排队，它会写入最新的数据
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Snapshot<T> latest = mPendingWrite.getAndSet(null);
+                if (latest == null) {
+                    return;
+                }
+                try {
+                    write(latest.pages, latest.sequence);
+                } catch (IOException | RuntimeException e) {
+                    // 在共用的后台线程上，不能让编码器的异常抛出去；写入失败不影响正常显示，
+                    // 也不删除缓存文件，它是上一次成功写入的数据，可能比这次更新
+                }
+            }
+        });
+    }
+
+    // 删除缓存
+    public synchronized void clear() {
+        mFile.delete();
+    }
+
+    private List<List<T>> decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        int pageCount = buffer.getInt();
+        int bodySize = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (pageCount < 0 || bodySize != buffer.remaining()) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.position(), bodySize);
+        if (crc.getValue() != checksum) {
+            return null;
+        }
+
+        List<List<T>> pages = new ArrayList<>(pageCount);
+        for (int p = 0; p < pageCount; p++) {
+            int itemCount = buffer.getInt();
+            if (itemCount < 0) {
+                return null;
+            }
+            List<T> page = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                int itemLength = buffer.getInt();
+                if (itemLength < 0 || itemLength > buffer.remaining()) {
+                    return null;
+                }
+                int end = buffer.position() + itemLength;
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(end);
+                page.add(mCodec.decode(slice.asReadOnlyBuffer()));
+                buffer.position(end);
+            }
+            pages.add(page);
+        }
+        return buffer.hasRemaining() ? null : pages;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    // 等待写入的数据和它的编号
+    private static final class Snapshot<T> {
+        final List<List<T>> pages;
+        final long sequence;
+
+        Snapshot(List<List<T>> pages, long sequence) {
+            this.pages = pages;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 驱动PagedSource加载：在后台线程加载，在主线程交付数据并切换加载状态
+ * 同一时间只有一个加载任务，刷新时会取消正在进行的加载
+ */
+final class PagedLoader<Key, T> {
+
+    interface Target<T> {
+        // 刷新得到的第一页，替换全部数据，key为这一页的key
+        void replaceData(List<T> data, Object key);
+
+        // 加载更多得到的一页，追加到末尾，key为这一页的key
+        void appendData(List<T> data, Object key);
+    }
+
+    interface ReloadCallback<T> {
+        // 主线程回调，error不为空表示重新加载失败
+        void onReloaded(List<T> data, Exception error);
+    }
+
+    private final PagedSource<Key, T> mSource;
+    private final Key mInitialKey;
+    private final LoadStateMachine mStateMachine;
+    private final Target<T> mTarget;
+    private final Executor mExecutor;
+    // 交付结果的线程，默认是主线程
+    private final Executor mMainExecutor;
+
+    private int mPageSize;
+    // 下一页的key
+    private Key mNextKey;
+    // 每次开始加载或取消时递增，过期的结果直接丢弃
+    private int mGeneration;
+    // 正在进行的加载，只有线程池是ExecutorService时才能拿到
+    private Future<?> mInFlight;
+    private boolean mRunning;
+    // 每次取消递增，用来丢弃刷新前发出的重新加载
+    private int mEpoch;
+    // 刷新还没有成功交付，这期间的加载都要替换全部数据，否则第一页会追加在旧数据后面
+    private boolean mRefreshPending;
+
+    PagedLoader(PagedSource<Key, T> source, Key initialKey, LoadStateMachine stateMachine,
+                Target<T> target, Executor executor, int pageSize) {
+        this(source, initialKey, stateMachine, target, executor, null, pageSize);
+    }
+
+    PagedLoader(PagedSource<Key, T> source, Key initialKey, LoadStateMachine stateMachine,
+                Target<T> target, Executor executor, Executor mainExecutor, int pageSize) {
+        mSource = source;
+        mInitialKey = initialKey;
+        mStateMachine = stateMachine;
+        mTarget = target;
+        mExecutor = executor != null ? executor : AdapterExecutors.background();
+        mMainExecutor = mainExecutor != null ? mainExecutor : AdapterExecutors.mainThread();
+        mPageSize = pageSize;
+        mNextKey = initialKey;
+    }
+
+    void setPageSize(int pageSize) {
+        mPageSize = pageSize;
+    }
+
+    // 取消正在进行的加载，从第一页重新加载
+    void refresh() {
+        cancel();
+        mNextKey = mInitialKey;
+        mRefreshPending = true;
+        start(mInitialKey, true);
+    }
+
+    // 加载下一页，正在加载、已到底或无数据时忽略；刷新失败后调用时重试刷新
+    void loadMore() {
+        LoadingState state = mStateMachine.getState();
+        if (mRunning || state == LoadingState.LOAD_END || state == LoadingState.LOAD_NODATA) {
+            return;
+        }
+        start(mNextKey, mRefreshPending);
+    }
+
+    // 取消正在进行的加载，已经在路上的结果会被丢弃
+    void cancel() {
+        mGeneration++;
+        mEpoch++;
+        mRunning = false;
+        if (mInFlight != null) {
+            mInFlight.cancel(true);
+            mInFlight = null;
+        }
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    // 重新加载已经加载过的一页，不影响加载状态，刷新后结果会被丢弃
+    @SuppressWarnings("unchecked")
+    void reload(Object pageKey, final ReloadCallback<T> callback) {
+        final Key key = (Key) pageKey;
+        final int epoch = mEpoch;
+        final int pageSize = mPageSize;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<T> data = null;
+                Exception error = null;
+                try {
+                    PagedSource.Page<Key, T> page = mSource.load(key, pageSize);
+                    data = page != null ? page.getmDatas() : null;
+                } catch (Exception e) {
+                    error = e;
+                }
+                final List<T> result = data != null ? data : Collections.<T>emptyList();
+                final Exception reloadError = error;
+                mMainExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (epoch == mEpoch) {
+                            callback.onReloaded(result, reloadError);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void start(final Key key, final boolean refresh) {
+        final int generation = ++mGeneration;
+        final int pageSize = mPageSize;
+        mRunning = true;
+        mStateMachine.moveTo(LoadingState.LOADING);
+
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                PagedSource.Page<Key, T> page = null;
+                Exception error = null;
+                try {
+                    page = mSource.load(key, pageSize);
+                } catch (Exception e) {
+                    error = e;
+                }
+                deliver(generation, refresh, key, page, error);
+            }
+        };
+        if (mExecutor instanceof ExecutorService) {
+            mInFlight = ((ExecutorService) mExecutor).submit(task);
+        } else {
+            mExecutor.execute(task);
+        }
+    }
+
+    private void deliver(final int generation, final boolean refresh, final Key key,
+                         final PagedSource.Page<Key, T> page, final Exception error) {
+        mMainExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration) {
+                    // 已经被取消或有更新的加载
+                    return;
+                }
+                mRunning = false;
+                mInFlight = null;
+                if (error != null || page == null) {
+                    mStateMachine.moveTo(LoadingState.LOAD_ERROR);
+                    return;
+                }
+
+                List<T> data = page.getmDatas() != null ? page.getmDatas() : Collections.<T>emptyList();
+                mNextKey = page.getmNextKey();
+                if (refresh) {
+                    mRefreshPending = false;
+                    mTarget.replaceData(data, key);
+                } else {
+                    mTarget.appendData(data, key);
+                }
+
+                if (refresh && data.isEmpty()) {
+                    mStateMachine.moveTo(LoadingState.LOAD_NODATA);
+                } else if (mNextKey == null) {
+                    mStateMachine.moveTo(LoadingState.LOAD_END);
+                } else {
+                    mStateMachine.moveTo(LoadingState.LOAD_COMPLETE);
+                }
+            }
+        });
+    }
+}
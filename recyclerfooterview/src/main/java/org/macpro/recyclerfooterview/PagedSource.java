@@ -0,0 +1,47 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.List;
+
+/**
+ * 分页数据源，由LoadMoreLinearBaseAdapter驱动
+ * load在后台线程调用，结果和加载状态会自动切回主线程交给Adapter
+ *
+ * @param <Key> 页的key，比如页码或者游标
+ * @param <T>   数据类型
+ */
+public abstract class PagedSource<Key, T> {
+
+    /**
+     * 加载一页数据，在后台线程调用
+     * 刷新时线程可能被中断，实现中阻塞的网络请求应响应中断
+     *
+     * @param key      要加载的页
+     * @param pageSize 建议的每页数量
+     * @return 这一页的数据和下一页的key
+     * @throws Exception 加载出错，脚布局显示加载出错
+     */
+    public abstract Page<Key, T> load(Key key, int pageSize) throws Exception;
+
+
+    // 一页数据
+    public static class Page<Key, T> {
+
+        // 这一页的数据
+        private final List<T> mDatas;
+        // 下一页的key，为空表示已经加载到底
+        private final Key mNextKey;
+
+        public Page(List<T> datas, Key nextKey) {
+            mDatas = datas;
+            mNextKey = nextKey;
+        }
+
+        public List<T> getmDatas() {
+            return mDatas;
+        }
+
+        public Key getmNextKey() {
+            return mNextKey;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.macpro.recyclerfooterview;
 
 import android.content.Context;
+import android.support.v7.util.ListUpdateCallback;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,9 +16,8 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Created by Konfyt on 2016/9/14.
@@ -30,6 +30,16 @@ public abstract class RecyclerViewBaseAdapter<T> extends RecyclerView.Adapter<Re
     private RecyclerView mRecyclerView;
     private OnItemClickListener listener;
     private Context mContext;
+    // 预填充的View池，未开启时为空
+    private InflatedViewPool mViewPool;
+    // 预填充的item数量
+    private int mPreInflateCount;
+    // item的id，未设置时不开启stable ids
+    private ItemIdExtractor<T> mIdExtractor;
+    // 运行指标，未开启时为空
+    private AdapterMetrics mMetrics;
+    // 过滤模式，未使用时为空
+    private ListFilter<T> mFilter;
 
 
     public RecyclerViewBaseAdapter(Context context, int layoutResId) {
@@ -51,10 +61,36 @@ public abstract class RecyclerViewBaseAdapter<T> extends RecyclerView.Adapter<Re
         return mDatas.size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        if (mIdExtractor == null) {
+            return RecyclerView.NO_ID;
+        }
+        return mIdExtractor.getItemId(mDatas.get(position));
+    }
+
+    /**
+     * 设置item的id，开启stable ids，需要在setAdapter之前调用
+     */
+    public void setItemIdExtractor(ItemIdExtractor<T> extractor) {
+        mIdExtractor = extractor;
+        setHasStableIds(extractor != null);
+    }
+
     // 创建ViewHolder
     @Override
     public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        View itemView = mInflater.inflate(mLayoutResId, parent, false);
+        if (mMetrics == null) {
+            return createItemViewHolder(parent, viewType);
+        }
+        long start = System.nanoTime();
+        ViewHolder holder = createItemViewHolder(parent, viewType);
+        mMetrics.onViewHolderCreated(viewType, System.nanoTime() - start);
+        return holder;
+    }
+
+    private ViewHolder createItemViewHolder(ViewGroup parent, int viewType) {
+        View itemView = obtainView(mLayoutResId, parent);
         itemView.setOnClickListener(this);
         return new ViewHolder(itemView);
     }
@@ -63,31 +99,192 @@ public abstract class RecyclerViewBaseAdapter<T> extends RecyclerView.Adapter<Re
     // 所以RecyclerViewBaseAdapter需要声明成抽象类
     @Override
     public void onBindViewHolder(ViewHolder holder, int position) {
+        holder.mMetrics = mMetrics;
+        if (mMetrics == null) {
+            bindItemViewHolder(holder, position);
+            return;
+        }
+        long start = System.nanoTime();
+        bindItemViewHolder(holder, position);
+        mMetrics.onViewHolderBound(holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    private void bindItemViewHolder(ViewHolder holder, int position) {
         // 需要子类去实现 具体操作
         bind(holder, mDatas.get(position),position);
     }
 
+    // 带payload的绑定，payload为空时整体绑定，否则交给bindPartial局部刷新
+    @Override
+    public void onBindViewHolder(ViewHolder holder, int position, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        holder.mMetrics = mMetrics;
+        if (mMetrics == null) {
+            bindPartial(holder, mDatas.get(position), position, payloads);
+            return;
+        }
+        long start = System.nanoTime();
+        bindPartial(holder, mDatas.get(position), position, payloads);
+        mMetrics.onViewHolderBound(holder.getItemViewType(), System.nanoTime() - start);
+    }
+
+    // 局部刷新某个位置，payload会传给bindPartial
+    public void updateItem(int position, Object payload) {
+        notifyItemChanged(position, payload);
+    }
+
+    // 优先从预填充的池中取View，取不到时同步填充
+    private View obtainView(int layoutResId, ViewGroup parent) {
+        View view = mViewPool != null ? mViewPool.obtain(layoutResId) : null;
+        return view != null ? view : mInflater.inflate(layoutResId, parent, false);
+    }
+
+    /**
+     * 开启预填充，绑定RecyclerView时在后台线程先填充count个item View
+     * 需要在setAdapter之前调用
+     */
+    public void setPreInflateCount(int count) {
+        mPreInflateCount = count;
+        if (count > 0 && mViewPool == null) {
+            mViewPool = new InflatedViewPool();
+        }
+    }
+
+    // 对外提供预填充的View池，可以读取命中次数，未开启时为空
+    public InflatedViewPool getInflatedViewPool() {
+        return mViewPool;
+    }
+
     @Override
     public void onAttachedToRecyclerView(RecyclerView recyclerView) {
         super.onAttachedToRecyclerView(recyclerView);
         mRecyclerView = recyclerView;
+
+        if (mViewPool != null) {
+            mViewPool.prefill(recyclerView, mLayoutResId, mPreInflateCount);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (mViewPool != null) {
+            mViewPool.clear();
+        }
     }
 
     // 添加数据源
     public void addData(List<T> data) {
+        if (data == null || data.isEmpty()) {
+            return;
+        }
+        if (isFiltering()) {
+            // 过滤时追加到完整数据，重新过滤后再显示
+            mFilter.appendSource(data);
+            return;
+        }
+        int positionStart = mDatas.size();
         mDatas.addAll(data);
-        notifyDataSetChanged();
+        // 只通知新增的区间，已显示的item不需要重新绑定
+        notifyItemRangeInserted(positionStart, data.size());
     }
 
     // 清空数据源
     public void clearAll() {
+        if (mFilter != null) {
+            mFilter.reset();
+        }
+        int itemCount = mDatas.size();
+        if (itemCount == 0) {
+            return;
+        }
         mDatas.clear();
-        notifyDataSetChanged();
+        notifyItemRangeRemoved(0, itemCount);
+    }
+
+    // 设置搜索时取出item文本的方法，需要在setFilterQuery之前调用
+    public void setFilterTextExtractor(ItemTextExtractor<T> extractor) {
+        getFilter().setTextExtractor(extractor);
+        if (isFiltering()) {
+            mFilter.update();
+        }
+    }
+
+    /**
+     * 按搜索词过滤，为空时清除搜索词；每个词都要是item文本中某个词的前缀才显示
+     * 在后台线程用索引计算，还没完成的上一次过滤会被取消，结果只通知变化的区间
+     * 过滤期间addData修改的是完整数据
+     */
+    public void setFilterQuery(CharSequence query) {
+        getFilter().setQuery(query);
+        mFilter.update();
+    }
+
+    // 按条件过滤，和搜索词同时生效，为空时清除条件
+    public void setFilterPredicate(ItemPredicate<T> predicate) {
+        getFilter().setPredicate(predicate);
+        mFilter.update();
+    }
+
+    // 清除搜索词和过滤条件，立即显示完整数据
+    public void clearFilter() {
+        if (mFilter != null) {
+            mFilter.clear();
+        }
+    }
+
+    // 是否正在显示过滤结果
+    public boolean isFiltering() {
+        return mFilter != null && mFilter.isFiltering();
+    }
+
+    // 未过滤的完整数据，没有过滤时和getmDatas相同
+    public List<T> getUnfilteredData() {
+        return isFiltering() ? mFilter.getSource() : mDatas;
+    }
+
+    // 设置过滤使用的线程池，默认使用内部的后台线程池
+    public void setFilterExecutor(Executor executor) {
+        getFilter().setExecutor(executor);
+    }
+
+    private ListFilter<T> getFilter() {
+        if (mFilter == null) {
+            mFilter = new ListFilter<>(new ListFilter.Target<T>() {
+                @Override
+                public List<T> getData() {
+                    return mDatas;
+                }
+
+                @Override
+                public ItemDiffCallback<T> getItemCallback() {
+                    return new ItemDiffCallback<>();
+                }
+
+                @Override
+                public ListUpdateCallback getUpdateCallback() {
+                    return new OffsetListUpdateCallback(RecyclerViewBaseAdapter.this, 0);
+                }
+
+                @Override
+                public void onCleared() {
+                }
+            });
+        }
+        return mFilter;
     }
 
 
     public abstract void bind(ViewHolder holder, T t , int position);
 
+    // 局部刷新，payloads为updateItem产生的变化，默认整体重新绑定
+    public void bindPartial(ViewHolder holder, T t, int position, List<Object> payloads) {
+        bind(holder, t, position);
+    }
+
     @Override
     public void onClick(View v) {
         int position = mRecyclerView.getChildAdapterPosition(v);
@@ -99,11 +296,13 @@ public abstract class RecyclerViewBaseAdapter<T> extends RecyclerView.Adapter<Re
 
     // ViewHoldr类
     public static class ViewHolder extends RecyclerView.ViewHolder {
-        private Map<Integer, View> mCacheViews;
+        private IntObjectCache<View> mCacheViews;
+        // 绑定时由Adapter设置，用于统计缓存命中率
+        private AdapterMetrics mMetrics;
 
         public ViewHolder(View itemView) {
             super(itemView);
-            mCacheViews = new HashMap<>();
+            mCacheViews = new IntObjectCache<>();
         }
 
 
@@ -141,18 +340,33 @@ public abstract class RecyclerViewBaseAdapter<T> extends RecyclerView.Adapter<Re
         }
 
         public <T extends View> T getView(int resId) {
-            View view = null;
-            if (mCacheViews.containsKey(resId)) {
-                view = mCacheViews.get(resId);
-            } else {
+            // 命中时只有一次查找，没有装箱
+            View view = mCacheViews.get(resId);
+            // 找不到的id也缓存为null，之后不再遍历View树
+            boolean hit = view != null || mCacheViews.containsKey(resId);
+            if (!hit) {
                 view = itemView.findViewById(resId);
                 mCacheViews.put(resId, view);
             }
+            if (mMetrics != null) {
+                mMetrics.onViewCacheLookup(hit);
+            }
             return (T) view;
         }
     }
 
 
+    /**
+     * 开启运行指标，传null关闭，通过AdapterMetrics.snapshot读取
+     */
+    public void setMetrics(AdapterMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    public AdapterMetrics getMetrics() {
+        return mMetrics;
+    }
+
     // 对外提供获取数据源的方法
     public List<T> getmDatas() {
         return mDatas;
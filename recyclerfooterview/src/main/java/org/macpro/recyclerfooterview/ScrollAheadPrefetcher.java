@@ -0,0 +1,131 @@
+package org.macpro.recyclerfooterview;
+
+/**
+ * 按滑动方向和速度预测即将显示的item区间，交给调用方提前加载图片等内容
+ * 同一区间只回调一次，回调间隔不小于最小间隔，滑动方向反转时取消之前的预取
+ * 不依赖Android，由OnLoadMoreListener在onScrolled里驱动
+ */
+class ScrollAheadPrefetcher {
+
+    interface Callback {
+        // 预取[fromPosition, toPosition]之间的item，包含两端
+        void onPrefetch(int fromPosition, int toPosition);
+
+        // 方向反转，之前预取的区间不会很快显示
+        void onCancel();
+    }
+
+    // 按当前速度预取未来多长时间内会显示的item
+    private static final long LOOKAHEAD_MILLIS = 500;
+
+    private final Callback mCallback;
+    private int mMinItemCount;
+    private int mMaxItemCount;
+    private long mMinIntervalMillis = 100;
+
+    // 上次回调的方向，1向后，-1向前，0表示还没有回调
+    private int mDirection;
+    // 已回调区间里离屏幕最远的位置，下次只回调超出的部分
+    private int mReportedEdge;
+    private long mLastReportMillis = Long.MIN_VALUE;
+    // 上次滑动时的item总数，变化后已回调的位置可能不再对应
+    private int mItemCount = -1;
+    private long mLastScrollMillis = Long.MIN_VALUE;
+    // 平滑后的滑动速度，单位像素每毫秒
+    private float mVelocity;
+
+    ScrollAheadPrefetcher(Callback callback) {
+        mCallback = callback;
+    }
+
+    // 每次至少预取minItemCount个，快速滑动时最多maxItemCount个，minItemCount为0时关闭
+    void setItemCount(int minItemCount, int maxItemCount) {
+        mMinItemCount = Math.max(0, minItemCount);
+        mMaxItemCount = Math.max(mMinItemCount, maxItemCount);
+    }
+
+    void setMinIntervalMillis(long minIntervalMillis) {
+        mMinIntervalMillis = Math.max(0, minIntervalMillis);
+    }
+
+    boolean isEnabled() {
+        return mMinItemCount > 0;
+    }
+
+    /**
+     * 每次滑动时调用
+     *
+     * @param delta          滑动距离，大于0表示向列表末尾滑动
+     * @param firstVisible   第一个可见item的位置
+     * @param lastVisible    最后一个可见item的位置
+     * @param itemCount      item总数
+     * @param viewportExtent 列表在滑动方向上的长度，用来估算单个item的大小
+     * @param nowMillis      当前时间
+     */
+    void onScrolled(int delta, int firstVisible, int lastVisible, int itemCount, int viewportExtent, long nowMillis) {
+        if (delta == 0 || firstVisible < 0 || lastVisible < firstVisible) {
+            return;
+        }
+        int direction = delta > 0 ? 1 : -1;
+        if (mDirection != 0 && direction != mDirection) {
+            // 方向反转，取消之前的预取，重新计算速度
+            mDirection = 0;
+            mVelocity = 0;
+            mLastScrollMillis = Long.MIN_VALUE;
+            mLastReportMillis = Long.MIN_VALUE;
+            mCallback.onCancel();
+        }
+        if (itemCount != mItemCount) {
+            // 数据变化后重新计算区间，插入到前面的数据会让位置整体后移
+            mItemCount = itemCount;
+            mReportedEdge = mDirection > 0 ? -1 : Integer.MAX_VALUE;
+        }
+        updateVelocity(Math.abs(delta), nowMillis);
+        if (mLastReportMillis != Long.MIN_VALUE && nowMillis - mLastReportMillis < mMinIntervalMillis) {
+            return;
+        }
+
+        int count = getLookaheadCount(lastVisible - firstVisible + 1, viewportExtent);
+        int from;
+        int to;
+        if (direction > 0) {
+            from = lastVisible + 1;
+            to = Math.min(itemCount - 1, lastVisible + count);
+            if (mDirection == direction) {
+                from = Math.max(from, mReportedEdge + 1);
+            }
+        } else {
+            from = Math.max(0, firstVisible - count);
+            to = firstVisible - 1;
+            if (mDirection == direction) {
+                to = Math.min(to, mReportedEdge - 1);
+            }
+        }
+        if (from > to) {
+            return;
+        }
+        mDirection = direction;
+        mReportedEdge = direction > 0 ? to : from;
+        mLastReportMillis = nowMillis;
+        mCallback.onPrefetch(from, to);
+    }
+
+    private void updateVelocity(int distance, long nowMillis) {
+        if (mLastScrollMillis != Long.MIN_VALUE && nowMillis > mLastScrollMillis) {
+            float velocity = (float) distance / (nowMillis - mLastScrollMillis);
+            // 指数平滑，避免单次onScrolled的抖动
+            mVelocity = mVelocity == 0 ? velocity : (mVelocity + velocity) / 2;
+        }
+        mLastScrollMillis = nowMillis;
+    }
+
+    // 最少预取mMinItemCount个，再加上按速度在LOOKAHEAD_MILLIS内会滑过的item数
+    int getLookaheadCount(int visibleItemCount, int viewportExtent) {
+        int count = mMinItemCount;
+        if (viewportExtent > 0 && mVelocity > 0) {
+            float itemExtent = (float) viewportExtent / visibleItemCount;
+            count += (int) Math.ceil(mVelocity * LOOKAHEAD_MILLIS / itemExtent);
+        }
+        return Math.min(count, mMaxItemCount);
+    }
+}
@@ -0,0 +1,44 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * 在列表前面插入数据时保持第一个可见的item不动
+ */
+final class ScrollAnchor {
+
+    private ScrollAnchor() {
+    }
+
+    /**
+     * 通知在positionStart处插入了count个item
+     * 插入位置之前只有头布局可见时，LinearLayoutManager会以头布局为锚点，新item把原来的内容挤下去，
+     * 这时把原来插入位置上的item滚回原来的偏移；其它情况LayoutManager自己就会保持锚点
+     */
+    static void notifyPrepended(RecyclerView.Adapter<?> adapter, RecyclerView recyclerView, int positionStart, int count) {
+        RecyclerView.LayoutManager manager = recyclerView == null ? null : recyclerView.getLayoutManager();
+        if (!(manager instanceof LinearLayoutManager)) {
+            adapter.notifyItemRangeInserted(positionStart, count);
+            return;
+        }
+        LinearLayoutManager linearManager = (LinearLayoutManager) manager;
+        View anchorView = null;
+        // 反向布局时插入的item在可见区域之外，不需要处理
+        if (!linearManager.getReverseLayout()
+                && linearManager.findFirstVisibleItemPosition() < positionStart) {
+            anchorView = linearManager.findViewByPosition(positionStart);
+        }
+        if (anchorView == null) {
+            adapter.notifyItemRangeInserted(positionStart, count);
+            return;
+        }
+        int offset = linearManager.getOrientation() == LinearLayoutManager.VERTICAL
+                ? linearManager.getDecoratedTop(anchorView) - linearManager.getPaddingTop()
+                : linearManager.getDecoratedLeft(anchorView) - linearManager.getPaddingLeft();
+        adapter.notifyItemRangeInserted(positionStart, count);
+        // 和插入合并在同一次布局中完成
+        linearManager.scrollToPositionWithOffset(positionStart + count, offset);
+    }
+}
@@ -0,0 +1,33 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 应用范围内按名字共享的ViewHolder池，比如多个Tab或嵌套列表使用同一个名字
+ */
+public final class SharedViewPools {
+
+    private static final Map<String, TunableViewPool> sPools = new HashMap<>();
+
+    private SharedViewPools() {
+    }
+
+    // 获取名字对应的池，不存在时创建
+    public static synchronized TunableViewPool get(String name) {
+        TunableViewPool pool = sPools.get(name);
+        if (pool == null) {
+            pool = new TunableViewPool();
+            sPools.put(name, pool);
+        }
+        return pool;
+    }
+
+    // 释放名字对应的池，页面全部销毁后调用
+    public static synchronized void release(String name) {
+        TunableViewPool pool = sPools.remove(name);
+        if (pool != null) {
+            pool.clear();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.BatchingListUpdateCallback;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 按比较器保持数据有序，插入和更新时用二分查找定位，只通知插入、移动和内容变化的位置
+ * 比较结果相等的item按加入的先后排列，新加入的在后面
+ */
+final class SortedOrder<T> {
+
+    private final Comparator<? super T> mComparator;
+
+    SortedOrder(Comparator<? super T> comparator) {
+        mComparator = comparator;
+    }
+
+    Comparator<? super T> getComparator() {
+        return mComparator;
+    }
+
+    // 数据是否已经有序
+    boolean isSorted(List<T> data) {
+        for (int i = 1; i < data.size(); i++) {
+            if (mComparator.compare(data.get(i - 1), data.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 插入位置：第一个比item大的位置，相等的item之后
+    int insertionPoint(List<T> data, T item) {
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mComparator.compare(data.get(mid), item) > 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // 第一个不比item小的位置
+    private int lowerBound(List<T> data, T item) {
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mComparator.compare(data.get(mid), item) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 把一批item合并到有序的数据中
+     * 多个item时先排序，再从后往前一次遍历合并，第一个插入位置之前的数据不会移动
+     *
+     * @param callback 按插入后的位置从小到大通知，相邻的插入合并成一次；为空时不通知
+     */
+    void merge(List<T> data, List<T> items, ListUpdateCallback callback) {
+        if (items.size() == 1) {
+            T item = items.get(0);
+            int position = insertionPoint(data, item);
+            data.add(position, item);
+            if (callback != null) {
+                callback.onInserted(position, 1);
+            }
+            return;
+        }
+        List<T> sorted = new ArrayList<>(items);
+        Collections.sort(sorted, mComparator);
+        int i = data.size() - 1;
+        int j = sorted.size() - 1;
+        // 先在末尾占出位置
+        data.addAll(sorted);
+        int[] positions = new int[sorted.size()];
+        for (int write = data.size() - 1; j >= 0; write--) {
+            if (i >= 0 && mComparator.compare(data.get(i), sorted.get(j)) > 0) {
+                data.set(write, data.get(i--));
+            } else {
+                positions[j] = write;
+                data.set(write, sorted.get(j--));
+            }
+        }
+        if (callback == null) {
+            return;
+        }
+        BatchingListUpdateCallback batching = new BatchingListUpdateCallback(callback);
+        for (int position : positions) {
+            batching.onInserted(position, 1);
+        }
+        batching.dispatchLastEvent();
+    }
+
+    /**
+     * 查找同一个item，先在比较结果相等的区间里按areItemsTheSame查找，
+     * 排序字段被修改过时找不到，再遍历全部数据
+     */
+    int indexOf(List<T> data, T item, ItemDiffCallback<T> itemCallback) {
+        int start = lowerBound(data, item);
+        for (int i = start; i < data.size() && mComparator.compare(data.get(i), item) == 0; i++) {
+            if (itemCallback.areItemsTheSame(data.get(i), item)) {
+                return i;
+            }
+        }
+        for (int i = 0; i < data.size(); i++) {
+            if (itemCallback.areItemsTheSame(data.get(i), item)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 用新的item替换同一个item，顺序变化时移动到新位置
+     * 位置变化时先通知移动，内容有变化时再在新位置通知变化
+     *
+     * @return 是否找到了同一个item
+     */
+    boolean update(List<T> data, T item, ItemDiffCallback<T> itemCallback, ListUpdateCallback callback) {
+        int position = indexOf(data, item, itemCallback);
+        if (position < 0) {
+            return false;
+        }
+        T oldItem = data.get(position);
+        int newPosition = position;
+        if (fitsAt(data, position, item)) {
+            // 顺序不变时直接替换，不需要移动数组
+            data.set(position, item);
+        } else {
+            data.remove(position);
+            newPosition = insertionPoint(data, item);
+            data.add(newPosition, item);
+            if (callback != null) {
+                callback.onMoved(position, newPosition);
+            }
+        }
+        if (callback != null && !itemCallback.areContentsTheSame(oldItem, item)) {
+            callback.onChanged(newPosition, 1, itemCallback.getChangePayload(oldItem, item));
+        }
+        return true;
+    }
+
+    // 删除同一个item，返回原来的位置，不存在时返回-1
+    int remove(List<T> data, T item, ItemDiffCallback<T> itemCallback, ListUpdateCallback callback) {
+        int position = indexOf(data, item, itemCallback);
+        if (position >= 0) {
+            data.remove(position);
+            if (callback != null) {
+                callback.onRemoved(position, 1);
+            }
+        }
+        return position;
+    }
+
+    // item放在position处是否仍然有序
+    private boolean fitsAt(List<T> data, int position, T item) {
+        return (position == 0 || mComparator.compare(data.get(position - 1), item) <= 0)
+                && (position == data.size() - 1 || mComparator.compare(item, data.get(position + 1)) <= 0);
+    }
+}
@@ -0,0 +1,132 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文本搜索用的倒排索引，item按下标顺序追加，只能增加不能修改
+ * 连续的字母和数字为一个词，中日韩文字每个字作为一个词，不区分大小写
+ * 查询时每个查询词都要是item中某个词的前缀，可以在多个后台线程使用
+ */
+final class TokenIndex {
+
+    // 中日韩文字从这里开始，这之后的文字不用空格分词
+    private static final char CJK_START = '\u2E80';
+
+    // 词 -> 包含该词的item下标，升序
+    private final Map<String, Postings> mPostings = new HashMap<>();
+    // 排序后的所有词，用于按前缀查找，有新词时置空，查询时重建
+    private String[] mSortedTokens;
+    // 已索引的item数
+    private int mSize;
+
+    synchronized int size() {
+        return mSize;
+    }
+
+    // 索引下一个item，下标为当前的size
+    synchronized void add(CharSequence text) {
+        int id = mSize++;
+        if (text == null) {
+            return;
+        }
+        List<String> tokens = tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            Postings postings = mPostings.get(token);
+            if (postings == null) {
+                postings = new Postings();
+                mPostings.put(token, postings);
+                mSortedTokens = null;
+            }
+            postings.add(id);
+        }
+    }
+
+    /**
+     * 查询同时匹配所有查询词的item
+     *
+     * @param queryTokens 用tokenize拆分后的查询词，不能为空
+     * @param itemCount   只返回小于itemCount的下标
+     */
+    synchronized BitSet query(List<String> queryTokens, int itemCount) {
+        if (mSortedTokens == null) {
+            mSortedTokens = mPostings.keySet().toArray(new String[mPostings.size()]);
+            Arrays.sort(mSortedTokens);
+        }
+        BitSet result = null;
+        for (int i = 0; i < queryTokens.size(); i++) {
+            String prefix = queryTokens.get(i);
+            BitSet matches = new BitSet(itemCount);
+            int index = Arrays.binarySearch(mSortedTokens, prefix);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            // 以prefix开头的词在排序后是连续的一段
+            for (; index < mSortedTokens.length && mSortedTokens[index].startsWith(prefix); index++) {
+                mPostings.get(mSortedTokens[index]).addTo(matches, itemCount);
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    static List<String> tokenize(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c >= CJK_START && Character.isLetter(c)) {
+                flush(builder, tokens);
+                tokens.add(String.valueOf(c));
+            } else if (Character.isLetterOrDigit(c)) {
+                builder.append(c);
+            } else {
+                flush(builder, tokens);
+            }
+        }
+        flush(builder, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder builder, List<String> tokens) {
+        if (builder.length() > 0) {
+            tokens.add(builder.toString());
+            builder.setLength(0);
+        }
+    }
+
+    // 一个词出现过的item下标，按添加顺序即为升序
+    private static final class Postings {
+        int[] mIds = new int[2];
+        int mSize;
+
+        void add(int id) {
+            // 同一个item中重复出现的词只记录一次
+            if (mSize > 0 && mIds[mSize - 1] == id) {
+                return;
+            }
+            if (mSize == mIds.length) {
+                mIds = Arrays.copyOf(mIds, mSize * 2);
+            }
+            mIds[mSize++] = id;
+        }
+
+        void addTo(BitSet bits, int itemCount) {
+            for (int i = 0; i < mSize && mIds[i] < itemCount; i++) {
+                bits.set(mIds[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+/**
+ * 可以在多个RecyclerView之间共享的ViewHolder池，支持按viewType设置容量
+ * 没有声明容量的viewType会根据创建与绑定的比例自动扩容：创建占比高说明池太小，ViewHolder被反复填充
+ * 共享时各Adapter对同一个viewType必须使用同一种ViewHolder，只在同一个Adapter类的实例之间共享
+ */
+public class TunableViewPool extends RecyclerView.RecycledViewPool {
+
+    // RecycledViewPool默认每种viewType缓存5个
+    private static final int DEFAULT_MAX = 5;
+    // 自动扩容的上限
+    private static final int ADAPTIVE_MAX = 20;
+    // 每次扩容增加的数量
+    private static final int ADAPTIVE_STEP = 2;
+    // 统计窗口，每绑定这么多次评估一次
+    private static final int SAMPLE_BINDS = 32;
+    // 窗口内创建次数超过绑定次数的该比例时扩容
+    private static final float GROW_RATIO = 0.2f;
+
+    // viewType可能为0（RecyclerView的默认类型），不能用IntObjectCache
+    private final SparseArray<TypeStats> mStats = new SparseArray<>();
+    private boolean mAdaptive = true;
+
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        super.setMaxRecycledViews(viewType, max);
+        TypeStats stats = getStats(viewType);
+        stats.max = max;
+        stats.declared = true;
+    }
+
+    // 是否根据创建与绑定的比例自动调整容量，默认开启
+    public void setAdaptive(boolean adaptive) {
+        mAdaptive = adaptive;
+    }
+
+    // 获取某个viewType当前的容量
+    public int getMaxRecycledViews(int viewType) {
+        TypeStats stats = mStats.get(viewType);
+        return stats != null ? stats.max : DEFAULT_MAX;
+    }
+
+    // Adapter创建ViewHolder时调用
+    void onViewHolderCreated(int viewType) {
+        getStats(viewType).creates++;
+    }
+
+    // Adapter绑定ViewHolder时调用
+    void onViewHolderBound(int viewType) {
+        TypeStats stats = getStats(viewType);
+        if (++stats.binds < SAMPLE_BINDS) {
+            return;
+        }
+        if (mAdaptive && !stats.declared && stats.max < ADAPTIVE_MAX
+                && stats.creates > stats.binds * GROW_RATIO) {
+            stats.max = Math.min(ADAPTIVE_MAX, stats.max + ADAPTIVE_STEP);
+            super.setMaxRecycledViews(viewType, stats.max);
+        }
+        stats.creates = 0;
+        stats.binds = 0;
+    }
+
+    private TypeStats getStats(int viewType) {
+        TypeStats stats = mStats.get(viewType);
+        if (stats == null) {
+            stats = new TypeStats();
+            mStats.put(viewType, stats);
+        }
+        return stats;
+    }
+
+    // 单个viewType的统计
+    private static class TypeStats {
+        int max = DEFAULT_MAX;
+        // 是否由使用者声明了容量，声明过的不自动调整
+        boolean declared;
+        int creates;
+        int binds;
+    }
+}
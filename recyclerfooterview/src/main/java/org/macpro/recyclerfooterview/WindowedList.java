@@ -0,0 +1,199 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 窗口模式下的数据源，按页保存数据
+ * 超出内存预算时，离当前位置最远的页会被淘汰，只保留占位，位置保持不变
+ * 被淘汰的页get返回null，由Adapter通过页的key重新加载
+ */
+final class WindowedList<T> extends AbstractList<T> {
+
+    // 一页数据
+    static final class Page<T> {
+        // 这一页在列表中的起始位置和数量
+        final int start;
+        final int size;
+        // 加载这一页使用的key
+        final Object key;
+        // 是否可以通过key重新加载，不能重新加载的页不会被淘汰
+        final boolean reloadable;
+        // 这一页的数据，被淘汰后为null
+        List<T> items;
+        // 占用的内存
+        long weight;
+        // 是否正在重新加载
+        boolean loading;
+        // 所属数据的代数，clear之后旧的页失效
+        final int generation;
+
+        Page(int generation, int start, List<T> items, Object key, boolean reloadable) {
+            this.generation = generation;
+            this.start = start;
+            this.size = items.size();
+            this.items = items;
+            this.key = key;
+            this.reloadable = reloadable;
+        }
+
+        boolean isEvicted() {
+            return items == null;
+        }
+    }
+
+    private final ArrayList<Page<T>> mPages = new ArrayList<>();
+    // 为空时按item数量计算内存
+    private final ItemSizeEstimator<T> mEstimator;
+    // 内存预算
+    private final long mBudget;
+    private long mResidentWeight;
+    private int mSize;
+    // 每次clear递增
+    private int mGeneration;
+
+    WindowedList(ItemSizeEstimator<T> estimator, long budget) {
+        mEstimator = estimator;
+        mBudget = budget;
+    }
+
+    @Override
+    public T get(int index) {
+        Page<T> page = findPage(index);
+        return page.items == null ? null : page.items.get(index - page.start);
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        appendPage(new ArrayList<T>(c), null, false);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        mPages.clear();
+        mGeneration++;
+        mSize = 0;
+        mResidentWeight = 0;
+    }
+
+    // 在末尾追加一页
+    void appendPage(List<T> items, Object key, boolean reloadable) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Page<T> page = new Page<>(mGeneration, mSize, items, key, reloadable);
+        page.weight = weigh(items);
+        mPages.add(page);
+        mSize += page.size;
+        mResidentWeight += page.weight;
+    }
+
+    // 二分查找位置所在的页
+    Page<T> findPage(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+        }
+        int low = 0;
+        int high = mPages.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mPages.get(mid).start <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return mPages.get(low);
+    }
+
+    // 该位置是否是被淘汰的占位
+    boolean isPlaceholder(int index) {
+        return findPage(index).isEvicted();
+    }
+
+    // 页是否还属于当前数据，clear之后旧的页不再属于
+    boolean contains(Page<T> page) {
+        return page.generation == mGeneration;
+    }
+
+    boolean isOverBudget() {
+        return mResidentWeight > mBudget;
+    }
+
+    long getResidentWeight() {
+        return mResidentWeight;
+    }
+
+    /**
+     * 超出预算时，从离anchor最远的页开始淘汰，anchor所在页和相邻的页始终保留
+     *
+     * @return 被淘汰的页
+     */
+    List<Page<T>> trim(int anchorPosition) {
+        List<Page<T>> evicted = new ArrayList<>();
+        if (!isOverBudget() || mSize == 0) {
+            return evicted;
+        }
+        int anchor = mPages.indexOf(findPage(Math.min(Math.max(anchorPosition, 0), mSize - 1)));
+        int low = 0;
+        int high = mPages.size() - 1;
+        while (isOverBudget() && (anchor - low > 1 || high - anchor > 1)) {
+            // 两端中离anchor更远的一端先淘汰
+            Page<T> page;
+            if (anchor - low >= high - anchor) {
+                page = mPages.get(low++);
+            } else {
+                page = mPages.get(high--);
+            }
+            if (page.reloadable && !page.isEvicted()) {
+                page.items = null;
+                page.loading = false;
+                mResidentWeight -= page.weight;
+                evicted.add(page);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * 重新加载完成，填回数据
+     * 数量和淘汰前不一致时无法对应到原来的位置，当作加载失败，保持占位，下次绑定时再重新加载
+     *
+     * @return 是否填回了数据
+     */
+    boolean restore(Page<T> page, List<T> items) {
+        if (!page.isEvicted()) {
+            return false;
+        }
+        page.loading = false;
+        if (items.size() != page.size) {
+            return false;
+        }
+        page.items = new ArrayList<>(items);
+        page.weight = weigh(page.items);
+        mResidentWeight += page.weight;
+        return true;
+    }
+
+    private long weigh(List<T> items) {
+        long weight = 0;
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item != null) {
+                weight += mEstimator != null ? mEstimator.estimateSize(item) : 1;
+            }
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,59 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AdapterMetricsTest {
+
+    @Test
+    public void histogram_bucketsByPowerOfTwoMicros() {
+        assertEquals(0, LatencyHistogram.bucketOf(999));
+        assertEquals(1, LatencyHistogram.bucketOf(1000));
+        assertEquals(2, LatencyHistogram.bucketOf(3999));
+        assertEquals(11, LatencyHistogram.bucketOf(1500000));
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(10000000000L));
+    }
+
+    @Test
+    public void histogram_percentileReturnsBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 9; i++) {
+            histogram.record(100000);
+        }
+        histogram.record(20000000);
+
+        assertEquals(10, histogram.getCount());
+        assertEquals(128, histogram.getPercentileMicros(50));
+        assertEquals(128, histogram.getPercentileMicros(90));
+        assertEquals(32768, histogram.getPercentileMicros(99));
+        assertEquals(20000000, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void snapshot_isIndependentOfLaterRecords() {
+        AdapterMetrics metrics = new AdapterMetrics();
+        metrics.onViewHolderCreated(7, 1000);
+        metrics.onViewHolderBound(7, 1000);
+        metrics.onViewHolderBound(7, 1000);
+        metrics.onViewHolderBound(9, 1000);
+        metrics.onFooterStateChanged(LoadingState.LOAD_COMPLETE, LoadingState.LOADING);
+        metrics.onViewCacheLookup(false);
+        metrics.onViewCacheLookup(true);
+        metrics.onViewCacheLookup(true);
+        metrics.onViewCacheLookup(true);
+
+        AdapterMetrics.Snapshot snapshot = metrics.snapshot();
+        metrics.onViewHolderBound(7, 1000);
+        metrics.reset();
+
+        assertEquals(1, snapshot.getType(7).getCreateCount());
+        assertEquals(2, snapshot.getType(7).getBindCount());
+        assertEquals(0, snapshot.getType(9).getCreateCount());
+        assertNull(snapshot.getType(8));
+        assertEquals(1, snapshot.getFooterTransitionCount(LoadingState.LOAD_COMPLETE, LoadingState.LOADING));
+        assertEquals(0.75f, snapshot.getViewCacheHitRatio(), 0.0001f);
+        assertEquals(0, metrics.snapshot().getTypes().size());
+    }
+}
@@ -0,0 +1,149 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 校验三个Adapter在数据变化时只发出精确的区间通知
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AdapterNotificationTest {
+
+    private Context mContext;
+    private RecordingObserver mObserver;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mObserver = new RecordingObserver();
+    }
+
+    @Test
+    public void loadMoreAdapter_addData_insertsBeforeFooter() {
+        LoadMoreLinearBaseAdapter<String> adapter = new LoadMoreAdapter(mContext);
+        adapter.addData(Arrays.asList("a", "b"));
+        adapter.registerAdapterDataObserver(mObserver);
+
+        adapter.addData(Arrays.asList("c", "d", "e"));
+
+        assertEquals(Collections.singletonList("rangeInserted(2,3)"), mObserver.events);
+        assertEquals(6, adapter.getItemCount());
+    }
+
+    @Test
+    public void loadMoreAdapter_addEmptyData_notifiesNothing() {
+        LoadMoreLinearBaseAdapter<String> adapter = new LoadMoreAdapter(mContext);
+        adapter.registerAdapterDataObserver(mObserver);
+
+        adapter.addData(Collections.<String>emptyList());
+
+        assertEquals(Collections.<String>emptyList(), mObserver.events);
+    }
+
+    @Test
+    public void loadMoreAdapter_clearAll_removesDataRangeOnly() {
+        LoadMoreLinearBaseAdapter<String> adapter = new LoadMoreAdapter(mContext);
+        adapter.addData(Arrays.asList("a", "b", "c"));
+        adapter.registerAdapterDataObserver(mObserver);
+
+        adapter.clearAll();
+        adapter.clearAll();
+
+        assertEquals(Collections.singletonList("rangeRemoved(0,3)"), mObserver.events);
+        assertEquals(1, adapter.getItemCount());
+    }
+
+    @Test
+    public void loadMoreAdapter_setLoadState_changesFooterOnlyOnTransition() {
+        LoadMoreLinearBaseAdapter<String> adapter = new LoadMoreAdapter(mContext);
+        adapter.addData(Arrays.asList("a", "b"));
+        adapter.registerAdapterDataObserver(mObserver);
+
+        adapter.setLoadState(LoadingState.LOAD_COMPLETE);
+        adapter.setLoadState(LoadingState.LOADING);
+        adapter.setLoadState(LoadingState.LOADING);
+
+        assertEquals(Collections.singletonList("rangeChanged(2,1)"), mObserver.events);
+    }
+
+    @Test
+    public void loadMore2Adapter_notifiesPrecisely() {
+        LoadMoreLinearBase2Adapter<String> adapter = new LoadMore2Adapter(mContext);
+        adapter.registerAdapterDataObserver(mObserver);
+
+        adapter.addData(Arrays.asList("a", "b"));
+        adapter.setLoadState(LoadingState.LOAD_END);
+        adapter.clearAll();
+
+        assertEquals(Arrays.asList("rangeInserted(0,2)", "rangeChanged(2,1)", "rangeRemoved(0,2)"),
+                mObserver.events);
+    }
+
+    @Test
+    public void baseAdapter_notifiesPrecisely() {
+        RecyclerViewBaseAdapter<String> adapter = new BaseAdapter(mContext);
+        adapter.registerAdapterDataObserver(mObserver);
+
+        adapter.addData(Arrays.asList("a", "b"));
+        adapter.addData(Collections.singletonList("c"));
+        adapter.clearAll();
+
+        assertEquals(Arrays.asList("rangeInserted(0,2)", "rangeInserted(2,1)", "rangeRemoved(0,3)"),
+                mObserver.events);
+    }
+
+
+    private static class LoadMoreAdapter extends LoadMoreLinearBaseAdapter<String> {
+
+        LoadMoreAdapter(Context context) {
+            super(context, R.layout.layout_refresh_footer);
+        }
+
+        @Override
+        public void bind(ViewHolder holder, String s, int position) {
+        }
+    }
+
+    private static class LoadMore2Adapter extends LoadMoreLinearBase2Adapter<String> {
+
+        LoadMore2Adapter(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int getCustomItemViewType(int position) {
+            return 0;
+        }
+
+        @Override
+        public ViewHolder onCreateCustomViewHolder(ViewGroup parent, int viewType) {
+            return new ViewHolder(getmInflater().inflate(R.layout.layout_refresh_footer, parent, false));
+        }
+
+        @Override
+        public void onBindCustomViewHolder(ViewHolder holder, int position) {
+        }
+    }
+
+    private static class BaseAdapter extends RecyclerViewBaseAdapter<String> {
+
+        BaseAdapter(Context context) {
+            super(context, R.layout.layout_refresh_footer);
+        }
+
+        @Override
+        public void bind(ViewHolder holder, String s, int position) {
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptivePagePolicyTest {
+
+    private long mNow;
+    private LoadStateMachine mMachine;
+    private AdaptivePagePolicy mPolicy;
+
+    @Before
+    public void setUp() {
+        mNow = 10000;
+        mMachine = new LoadStateMachine();
+        mPolicy = new AdaptivePagePolicy(10, 100, 2, 40, new AdaptivePagePolicy.Clock() {
+            @Override
+            public long uptimeMillis() {
+                return mNow;
+            }
+        });
+        mMachine.addOnStateChangedListener(mPolicy);
+    }
+
+    private void load(long latencyMillis, LoadingState result) {
+        mMachine.requestLoad();
+        mNow += latencyMillis;
+        mMachine.moveTo(result);
+    }
+
+    // 以每秒itemsPerSecond的速度滑动durationMillis，每16毫秒一次onScrolled
+    private void scroll(float itemsPerSecond, long durationMillis) {
+        for (long t = 0; t < durationMillis; t += 16) {
+            mNow += 16;
+            mPolicy.onScrolled(itemsPerSecond * 16 / 1000);
+        }
+    }
+
+    @Test
+    public void idleReader_getsMinimumBounds() {
+        load(2000, LoadingState.LOAD_COMPLETE);
+
+        assertEquals(10, mPolicy.getPageSize());
+        assertEquals(2, mPolicy.getPrefetchDistance());
+    }
+
+    @Test
+    public void latencyIsSmoothedAndErrorsAreIgnored() {
+        load(400, LoadingState.LOAD_COMPLETE);
+        load(800, LoadingState.LOAD_COMPLETE);
+        load(30000, LoadingState.LOAD_ERROR);
+
+        assertEquals(600, mPolicy.getLatencyMillis());
+    }
+
+    @Test
+    public void fastScrollWithSlowLoads_growsPageAndPrefetchUpToMax() {
+        load(1000, LoadingState.LOAD_COMPLETE);
+        scroll(20, 5000);
+
+        float velocity = mPolicy.getVelocityItemsPerSecond();
+        assertEquals(20, velocity, 1.5f);
+        // 加载期间约滑过20个item
+        assertEquals(22, mPolicy.getPrefetchDistance(), 2);
+        assertEquals(40, mPolicy.getPageSize(), 3);
+
+        scroll(200, 5000);
+        assertEquals(40, mPolicy.getPrefetchDistance());
+        assertEquals(100, mPolicy.getPageSize());
+    }
+
+    @Test
+    public void velocityDecaysAfterScrollStops() {
+        load(1000, LoadingState.LOAD_COMPLETE);
+        scroll(20, 5000);
+        mNow += 10000;
+
+        assertEquals(0, mPolicy.getVelocityItemsPerSecond(), 0.1f);
+        assertEquals(10, mPolicy.getPageSize());
+    }
+}
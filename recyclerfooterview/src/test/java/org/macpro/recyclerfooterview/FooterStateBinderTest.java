@@ -0,0 +1,100 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 校验脚布局只修改可见性真正变化的控件，子控件只在创建时查找一次
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FooterStateBinderTest {
+
+    private LinearLayout mFooter;
+    private CountingView mProgress;
+    private CountingView mLoadingText;
+    private CountingView mEnd;
+    private CountingView mNoData;
+    private CountingView mError;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mFooter = new LinearLayout(context);
+        // 初始可见性与正在加载一致
+        mProgress = addChild(context, R.id.pb_loading, View.VISIBLE);
+        mLoadingText = addChild(context, R.id.tv_loading, View.VISIBLE);
+        mEnd = addChild(context, R.id.ll_end, View.GONE);
+        mNoData = addChild(context, R.id.ll_no_data, View.GONE);
+        mError = addChild(context, R.id.ll_error, View.GONE);
+    }
+
+    @Test
+    public void bind_touchesOnlyChangedViews() {
+        FooterStateBinder binder = new FooterStateBinder(mFooter);
+
+        binder.bind(LoadingState.LOADING);
+        binder.bind(LoadingState.LOADING);
+        assertCalls(0, 0, 0, 0, 0);
+
+        binder.bind(LoadingState.LOAD_ERROR);
+        binder.bind(LoadingState.LOAD_ERROR);
+        assertCalls(1, 1, 0, 0, 1);
+        assertEquals(View.GONE, mProgress.getVisibility());
+        assertEquals(View.GONE, mLoadingText.getVisibility());
+        assertEquals(View.VISIBLE, mError.getVisibility());
+    }
+
+    @Test
+    public void bind_usesViewsResolvedAtCreation() {
+        FooterStateBinder binder = new FooterStateBinder(mFooter);
+        // 之后再查找会找不到控件
+        mFooter.removeAllViews();
+
+        binder.bind(LoadingState.LOADING);
+        binder.bind(LoadingState.LOADING);
+        binder.bind(LoadingState.LOAD_ERROR);
+
+        assertCalls(1, 1, 0, 0, 1);
+    }
+
+    private void assertCalls(int progress, int loadingText, int end, int noData, int error) {
+        assertEquals(progress, mProgress.mVisibilityCalls);
+        assertEquals(loadingText, mLoadingText.mVisibilityCalls);
+        assertEquals(end, mEnd.mVisibilityCalls);
+        assertEquals(noData, mNoData.mVisibilityCalls);
+        assertEquals(error, mError.mVisibilityCalls);
+    }
+
+    private CountingView addChild(Context context, int id, int visibility) {
+        CountingView view = new CountingView(context);
+        view.setId(id);
+        view.setVisibility(visibility);
+        view.mVisibilityCalls = 0;
+        mFooter.addView(view);
+        return view;
+    }
+
+    // 记录setVisibility的调用次数
+    private static class CountingView extends View {
+        int mVisibilityCalls;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setVisibility(int visibility) {
+            mVisibilityCalls++;
+            super.setVisibility(visibility);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 校验头布局、脚布局和数据之间的位置换算
+ */
+@RunWith(RobolectricTestRunner.class)
+public class HeaderFooterTest {
+
+    private Context mContext;
+    private RecordingObserver mObserver;
+    private LoadMoreLinearBaseAdapter<String> mAdapter;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mObserver = new RecordingObserver();
+        mAdapter = new LoadMoreLinearBaseAdapter<String>(mContext, R.layout.layout_refresh_footer) {
+            @Override
+            public void bind(ViewHolder holder, String s, int position) {
+            }
+        };
+    }
+
+    @Test
+    public void positions_areOffsetByHeaders() {
+        mAdapter.addHeaderView(new View(mContext));
+        mAdapter.addHeaderView(new View(mContext));
+        mAdapter.addFooterView(new View(mContext));
+        mAdapter.addData(Arrays.asList("a", "b", "c"));
+
+        // 2个头布局 + 3条数据 + 自定义脚布局 + 加载更多
+        assertEquals(7, mAdapter.getItemCount());
+        assertEquals(2, mAdapter.getHeaderCount());
+        assertEquals(RecyclerView.NO_POSITION, mAdapter.getDataPosition(1));
+        assertEquals(0, mAdapter.getDataPosition(2));
+        assertEquals(2, mAdapter.getDataPosition(4));
+        assertEquals(RecyclerView.NO_POSITION, mAdapter.getDataPosition(5));
+        // item的布局也是layout_refresh_footer，加载更多使用保留的viewType，两者不能相同
+        assertEquals(R.layout.layout_refresh_footer, mAdapter.getItemViewType(2));
+        assertEquals(FixedViewSlots.LOAD_MORE_TYPE, mAdapter.getItemViewType(6));
+        assertTrue(FixedViewSlots.isFixedViewType(mAdapter.getItemViewType(0)));
+        assertTrue(FixedViewSlots.isFixedViewType(mAdapter.getItemViewType(5)));
+    }
+
+    @Test
+    public void dataNotifications_includeHeaderOffset() {
+        mAdapter.addHeaderView(new View(mContext));
+        mAdapter.addData(Arrays.asList("a", "b"));
+        mAdapter.registerAdapterDataObserver(mObserver);
+
+        mAdapter.addData(Collections.singletonList("c"));
+        mAdapter.setLoadState(LoadingState.LOAD_END);
+        mAdapter.clearAll();
+
+        assertEquals(Arrays.asList("rangeInserted(3,1)", "rangeChanged(4,1)", "rangeRemoved(1,3)"),
+                mObserver.events);
+    }
+
+    @Test
+    public void loadMoreFooter_canBeDisabled() {
+        mAdapter.addData(Arrays.asList("a", "b"));
+        mAdapter.registerAdapterDataObserver(mObserver);
+
+        mAdapter.setLoadMoreFooterEnabled(false);
+        mAdapter.setLoadState(LoadingState.LOADING);
+        mAdapter.setLoadMoreFooterEnabled(true);
+
+        assertEquals(Arrays.asList("rangeRemoved(2,1)", "rangeInserted(2,1)"), mObserver.events);
+        assertEquals(3, mAdapter.getItemCount());
+    }
+
+    @Test
+    public void removeHeaderView_notifiesItsPosition() {
+        View first = new View(mContext);
+        View second = new View(mContext);
+        mAdapter.addHeaderView(first);
+        mAdapter.addHeaderView(second);
+        mAdapter.registerAdapterDataObserver(mObserver);
+
+        mAdapter.removeHeaderView(first);
+        mAdapter.removeHeaderView(first);
+
+        assertEquals(Collections.singletonList("rangeRemoved(0,1)"), mObserver.events);
+        assertEquals(1, mAdapter.getHeaderCount());
+    }
+
+    @Test
+    public void prependData_insertsAfterHeaders() {
+        mAdapter.setLoadPreviousEnabled(true);
+        mAdapter.addData(Arrays.asList("c", "d"));
+        mAdapter.registerAdapterDataObserver(mObserver);
+
+        mAdapter.prependData(Arrays.asList("a", "b"));
+        mAdapter.setLoadPreviousState(LoadingState.LOADING);
+
+        assertEquals(Arrays.asList("rangeInserted(1,2)", "rangeChanged(0,1)"), mObserver.events);
+        assertEquals(Arrays.asList("a", "b", "c", "d"), mAdapter.getmDatas());
+        assertEquals(FixedViewSlots.LOAD_PREVIOUS_TYPE, mAdapter.getItemViewType(0));
+        assertEquals(0, mAdapter.getDataPosition(1));
+    }
+
+    @Test
+    public void itemClick_passesDataPositionPastHeaders() {
+        View header = new View(mContext);
+        mAdapter.addHeaderView(header);
+        mAdapter.addHeaderView(new View(mContext));
+        mAdapter.addData(Arrays.asList("a", "b", "c"));
+        final List<String> clicks = new ArrayList<>();
+        mAdapter.setOnItemClickListener(new LoadMoreLinearBaseAdapter.OnItemClickListener<String>() {
+            @Override
+            public void onClick(String s, int position) {
+                clicks.add(s + "@" + position);
+            }
+        });
+        final int[] footerClicks = new int[1];
+        mAdapter.setOnFooterErrorListener(new LoadMoreLinearBaseAdapter.OnFooterErrorListener() {
+            @Override
+            public void onClick() {
+                footerClicks[0]++;
+            }
+        });
+        mAdapter.setLoadState(LoadingState.LOAD_ERROR);
+        RecyclerView recyclerView = layout(mAdapter);
+
+        // 2个头布局之后的第2条数据
+        recyclerView.findViewHolderForAdapterPosition(3).itemView.performClick();
+        // 头布局和加载更多的脚布局不触发item的点击
+        mAdapter.onClick(header);
+        View footer = recyclerView.findViewHolderForAdapterPosition(5).itemView;
+        mAdapter.onClick(footer);
+        footer.performClick();
+
+        assertEquals(Collections.singletonList("b@1"), clicks);
+        assertEquals(1, footerClicks[0]);
+    }
+
+    // 挂到RecyclerView上并完成一次布局
+    private RecyclerView layout(RecyclerView.Adapter<?> adapter) {
+        RecyclerView recyclerView = new RecyclerView(mContext);
+        recyclerView.setLayoutManager(new LinearLayoutManager(mContext));
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(adapter);
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 480, 800);
+        return recyclerView;
+    }
+}
@@ -0,0 +1,114 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * 校验预填充一次只提交一个请求、clear之后丢弃旧的结果，以及命中和未命中的统计
+ */
+@RunWith(RobolectricTestRunner.class)
+public class InflatedViewPoolTest {
+
+    private static final int LAYOUT = R.layout.layout_refresh_footer;
+
+    private Context mContext;
+    private ViewGroup mParent;
+    private ManualInflater mInflater;
+    private InflatedViewPool mPool;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mParent = new FrameLayout(mContext);
+        mInflater = new ManualInflater();
+        mPool = new InflatedViewPool(mInflater);
+    }
+
+    @Test
+    public void prefill_submitsOneRequestAtATime() {
+        mPool.prefill(mParent, LAYOUT, 3);
+        assertEquals(1, mInflater.mPending.size());
+
+        mInflater.finishNext();
+        assertEquals(1, mInflater.mPending.size());
+        mInflater.finishNext();
+        mInflater.finishNext();
+
+        assertEquals(0, mInflater.mPending.size());
+        assertEquals(3, mInflater.mRequestCount);
+    }
+
+    @Test
+    public void obtain_countsHitsAndMisses() {
+        mPool.prefill(mParent, LAYOUT, 2);
+        mInflater.finishNext();
+        mInflater.finishNext();
+
+        assertNotNull(mPool.obtain(LAYOUT));
+        assertNotNull(mPool.obtain(LAYOUT));
+        assertNull(mPool.obtain(LAYOUT));
+        assertNull(mPool.obtain(LAYOUT + 1));
+
+        assertEquals(2, mPool.getHitCount());
+        assertEquals(2, mPool.getMissCount());
+    }
+
+    @Test
+    public void clear_dropsResultsOfEarlierRequests() {
+        mPool.prefill(mParent, LAYOUT, 3);
+        mInflater.finishNext();
+
+        mPool.clear();
+        mInflater.finishNext();
+
+        // clear之前发出的请求完成后不入池，也不再提交剩下的
+        assertEquals(0, mInflater.mPending.size());
+        assertEquals(2, mInflater.mRequestCount);
+        assertNull(mPool.obtain(LAYOUT));
+    }
+
+    // 请求先排队，由测试决定什么时候完成
+    private class ManualInflater implements InflatedViewPool.AsyncInflater {
+        final List<Request> mPending = new ArrayList<>();
+        int mRequestCount;
+
+        @Override
+        public void inflate(int resid, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener callback) {
+            mRequestCount++;
+            mPending.add(new Request(resid, parent, callback));
+        }
+
+        void finishNext() {
+            Request request = mPending.remove(0);
+            request.mCallback.onInflateFinished(new View(mContext), request.mResId, request.mParent);
+        }
+    }
+
+    private static class Request {
+        final int mResId;
+        final ViewGroup mParent;
+        final AsyncLayoutInflater.OnInflateFinishedListener mCallback;
+
+        Request(int resId, ViewGroup parent, AsyncLayoutInflater.OnInflateFinishedListener callback) {
+            mResId = resId;
+            mParent = parent;
+            mCallback = callback;
+        }
+    }
+}
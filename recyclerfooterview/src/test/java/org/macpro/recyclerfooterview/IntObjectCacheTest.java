@@ -0,0 +1,59 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IntObjectCacheTest {
+
+    @Test
+    public void putAndGet() {
+        IntObjectCache<String> cache = new IntObjectCache<>();
+        cache.put(0x7f020001, "a");
+        cache.put(0x7f020002, "b");
+        cache.put(0x7f020001, "c");
+
+        assertEquals("c", cache.get(0x7f020001));
+        assertEquals("b", cache.get(0x7f020002));
+        assertNull(cache.get(0x7f020003));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void zeroKeyIsNeverCached() {
+        IntObjectCache<String> cache = new IntObjectCache<>();
+        cache.put(0, "a");
+
+        assertNull(cache.get(0));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void nullValueIsDistinguishedFromMissingKey() {
+        IntObjectCache<String> cache = new IntObjectCache<>();
+        // 找不到的控件id缓存为null
+        cache.put(0x7f020001, null);
+
+        assertNull(cache.get(0x7f020001));
+        assertTrue(cache.containsKey(0x7f020001));
+        assertFalse(cache.containsKey(0x7f020002));
+        assertFalse(cache.containsKey(0));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        IntObjectCache<Integer> cache = new IntObjectCache<>(4);
+        for (int i = 1; i <= 1000; i++) {
+            cache.put(0x7f020000 + i, i);
+        }
+
+        for (int i = 1; i <= 1000; i++) {
+            assertEquals(Integer.valueOf(i), cache.get(0x7f020000 + i));
+        }
+        assertEquals(1000, cache.size());
+    }
+}
@@ -0,0 +1,114 @@
+package org.macpro.recyclerfooterview;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ItemDelegateRegistryTest {
+
+    @Test
+    public void register_assignsSequentialTypes() {
+        ItemDelegateRegistry<Object> registry = new ItemDelegateRegistry<>();
+        ItemViewDelegate<String> strings = new EmptyDelegate<>();
+        ItemViewDelegate<Integer> integers = new EmptyDelegate<>();
+
+        assertEquals(0, registry.register(String.class, strings));
+        assertEquals(1, registry.register(Integer.class, integers));
+
+        assertEquals(0, registry.getItemViewType("a"));
+        assertEquals(1, registry.getItemViewType(1));
+        assertSame(integers, registry.getDelegate(1));
+    }
+
+    @Test
+    public void classDelegate_matchesSubclasses() {
+        ItemDelegateRegistry<Object> registry = new ItemDelegateRegistry<>();
+        registry.register(Number.class, new EmptyDelegate<Number>());
+
+        assertEquals(0, registry.getItemViewType(1L));
+        assertEquals(0, registry.getItemViewType(1.5d));
+    }
+
+    @Test
+    public void matcher_usedWhenNoClassMatches() {
+        ItemDelegateRegistry<Object> registry = new ItemDelegateRegistry<>();
+        registry.register(String.class, new EmptyDelegate<String>());
+        int even = registry.register(new ItemDelegateRegistry.Matcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof Integer && (Integer) item % 2 == 0;
+            }
+        }, new EmptyDelegate<Object>());
+        int any = registry.register(new ItemDelegateRegistry.Matcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return true;
+            }
+        }, new EmptyDelegate<Object>());
+
+        assertEquals(even, registry.getItemViewType(2));
+        assertEquals(any, registry.getItemViewType(3));
+        assertEquals(0, registry.getItemViewType("a"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unregisteredItem_throws() {
+        ItemDelegateRegistry<Object> registry = new ItemDelegateRegistry<>();
+        registry.register(String.class, new EmptyDelegate<String>());
+
+        registry.getItemViewType(1);
+    }
+
+    @Test
+    public void resolvedClasses_growAndResetOnRegister() {
+        ItemDelegateRegistry<Object> registry = new ItemDelegateRegistry<>();
+        registry.register(CharSequence.class, new EmptyDelegate<CharSequence>());
+        registry.register(new ItemDelegateRegistry.Matcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return true;
+            }
+        }, new EmptyDelegate<Object>());
+
+        // 超过初始容量的类
+        Object[] items = {"a", new StringBuilder("b"), 1, 2L, 3.0d, 4.0f, "c", 5};
+        int[] types = {0, 0, 1, 1, 1, 1, 0, 1};
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(types[i], registry.getItemViewType(items[i]));
+        }
+
+        // 新注册的类对已经解析过的类生效
+        int numbers = registry.register(Number.class, new EmptyDelegate<Number>());
+        assertEquals(numbers, registry.getItemViewType(1));
+        assertEquals(numbers, registry.getItemViewType(2L));
+        assertEquals(0, registry.getItemViewType("a"));
+    }
+
+    @Test
+    public void hasDelegate_onlyForRegisteredTypes() {
+        ItemDelegateRegistry<Object> registry = new ItemDelegateRegistry<>();
+        registry.register(String.class, new EmptyDelegate<String>());
+
+        assertTrue(registry.hasDelegate(0));
+        assertFalse(registry.hasDelegate(1));
+        assertFalse(registry.hasDelegate(-1));
+    }
+
+    private static class EmptyDelegate<T> extends ItemViewDelegate<T> {
+
+        @Override
+        public LoadMoreLinearBase2Adapter.ViewHolder onCreateViewHolder(LayoutInflater inflater, ViewGroup parent) {
+            return null;
+        }
+
+        @Override
+        public void onBindViewHolder(LoadMoreLinearBase2Adapter.ViewHolder holder, T t, int position) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class JankMonitorTest {
+
+    private static final long FRAME = 16000000;
+
+    @Test
+    public void session_countsSlowAndDroppedFrames() {
+        JankMonitor.Session session = new JankMonitor.Session(FRAME);
+        session.onFrame(FRAME, 0);
+        session.onFrame(FRAME + FRAME / 2, 0);
+        session.onFrame(2 * FRAME, 0);
+        session.onFrame(5 * FRAME + 1000, 0);
+
+        assertEquals(4, session.getFrameCount());
+        assertEquals(2, session.getSlowFrameCount());
+        assertEquals(5, session.getDroppedFrameCount());
+        assertEquals(5 * FRAME + 1000, session.getWorstFrameNanos());
+        assertEquals(9 * FRAME + FRAME / 2 + 1000, session.getDurationNanos());
+    }
+
+    @Test
+    public void session_tagsSlowFramesWithAdapterEvents() {
+        JankMonitor.Session session = new JankMonitor.Session(FRAME);
+        session.onFrame(3 * FRAME, JankMonitor.EVENT_ADD_DATA | JankMonitor.EVENT_CREATE_VIEW);
+        session.onFrame(3 * FRAME, JankMonitor.EVENT_CREATE_VIEW);
+        session.onFrame(3 * FRAME, 0);
+        session.onFrame(FRAME, JankMonitor.EVENT_LOAD_STATE);
+
+        assertEquals(3, session.getSlowFrameCount());
+        assertEquals(1, session.getSlowFrameCount(JankMonitor.EVENT_ADD_DATA));
+        assertEquals(2, session.getSlowFrameCount(JankMonitor.EVENT_CREATE_VIEW));
+        assertEquals(0, session.getSlowFrameCount(JankMonitor.EVENT_LOAD_STATE));
+        assertEquals(1, session.getUntaggedSlowFrameCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void session_rejectsNoEvent() {
+        new JankMonitor.Session(FRAME).getSlowFrameCount(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void session_rejectsCombinedEvents() {
+        new JankMonitor.Session(FRAME).getSlowFrameCount(JankMonitor.EVENT_ADD_DATA | JankMonitor.EVENT_CREATE_VIEW);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void session_rejectsUnknownEvent() {
+        new JankMonitor.Session(FRAME).getSlowFrameCount(1 << 3);
+    }
+}
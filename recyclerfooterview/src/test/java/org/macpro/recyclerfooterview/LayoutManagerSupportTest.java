@@ -0,0 +1,126 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 校验网格和瀑布流布局下脚布局占满一行，以及瀑布流下的加载更多判断
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LayoutManagerSupportTest {
+
+    private static final int ROW_HEIGHT = 100;
+
+    private Context mContext;
+    private LoadMoreLinearBaseAdapter<String> mAdapter;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mAdapter = new LoadMoreLinearBaseAdapter<String>(mContext, R.layout.layout_refresh_footer) {
+            @Override
+            public void bind(ViewHolder holder, String s, int position) {
+                holder.itemView.getLayoutParams().height = ROW_HEIGHT;
+            }
+        };
+    }
+
+    @Test
+    public void grid_headerAndFooterSpanFullRow() {
+        mAdapter.addHeaderView(new View(mContext));
+        mAdapter.addData(Arrays.asList("a", "b", "c", "d"));
+        GridLayoutManager manager = new GridLayoutManager(mContext, 3);
+        RecyclerView recyclerView = new RecyclerView(mContext);
+        recyclerView.setLayoutManager(manager);
+        recyclerView.setAdapter(mAdapter);
+
+        GridLayoutManager.SpanSizeLookup lookup = manager.getSpanSizeLookup();
+        assertEquals(3, lookup.getSpanSize(0));
+        assertEquals(1, lookup.getSpanSize(1));
+        assertEquals(1, lookup.getSpanSize(4));
+        assertEquals(3, lookup.getSpanSize(5));
+
+        // 重新关联时不会重复包装
+        recyclerView.setAdapter(null);
+        recyclerView.setAdapter(mAdapter);
+        assertSame(lookup, manager.getSpanSizeLookup());
+    }
+
+    @Test
+    public void staggered_loadsMoreAndReusesSpanPositions() {
+        mAdapter.addData(Arrays.asList("a", "b", "c", "d", "e"));
+        RecordingStaggeredManager manager = new RecordingStaggeredManager(2);
+        RecyclerView recyclerView = new RecyclerView(mContext);
+        recyclerView.setLayoutManager(manager);
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(mAdapter);
+        layout(recyclerView);
+        final int[] loadCount = new int[1];
+        OnLoadMoreListener listener = new OnLoadMoreListener(2) {
+            @Override
+            public void onLoadMore() {
+                loadCount[0]++;
+            }
+        };
+
+        // 之前强转为LinearLayoutManager，瀑布流下会抛出ClassCastException
+        listener.onScrolled(recyclerView, 0, 10);
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_IDLE);
+        listener.onScrolled(recyclerView, 0, 10);
+
+        // 5条数据都在一屏内，滑动中预加载一次，停止时滑到了最后一个item再触发一次；同一页滑动中不再查询
+        assertEquals(2, loadCount[0]);
+        assertEquals(2, manager.mQueries.size());
+        for (int[] into : manager.mQueries) {
+            assertSame(manager.mQueries.get(0), into);
+        }
+        assertEquals(2, manager.mQueries.get(0).length);
+
+        View footer = recyclerView.findViewHolderForAdapterPosition(mAdapter.getItemCount() - 1).itemView;
+        assertTrue(((StaggeredGridLayoutManager.LayoutParams) footer.getLayoutParams()).isFullSpan());
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 480, 800);
+    }
+
+    // 记录每次查询最后可见位置时传入的数组
+    private static class RecordingStaggeredManager extends StaggeredGridLayoutManager {
+        final List<int[]> mQueries = new ArrayList<>();
+
+        RecordingStaggeredManager(int spanCount) {
+            super(spanCount, VERTICAL);
+        }
+
+        @Override
+        public int[] findLastVisibleItemPositions(int[] into) {
+            mQueries.add(into);
+            return super.findLastVisibleItemPositions(into);
+        }
+
+        @Override
+        public int[] findLastCompletelyVisibleItemPositions(int[] into) {
+            mQueries.add(into);
+            return super.findLastCompletelyVisibleItemPositions(into);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ListFilterTest {
+
+    private static final List<String> FRUITS = Arrays.asList("apple", "avocado", "banana", "blueberry");
+
+    private final RecordingListUpdateCallback mCallback = new RecordingListUpdateCallback();
+    private final List<String> mData = new ArrayList<>();
+    private final QueueExecutor mBackground = new QueueExecutor();
+    private final QueueExecutor mMain = new QueueExecutor();
+    private int mClearedCount;
+    private ListFilter<String> mFilter;
+
+    @Before
+    public void setUp() {
+        mFilter = new ListFilter<>(new ListFilter.Target<String>() {
+            @Override
+            public List<String> getData() {
+                return mData;
+            }
+
+            @Override
+            public ItemDiffCallback<String> getItemCallback() {
+                return new ItemDiffCallback<>();
+            }
+
+            @Override
+            public ListUpdateCallback getUpdateCallback() {
+                return mCallback;
+            }
+
+            @Override
+            public void onCleared() {
+                mClearedCount++;
+            }
+        }, mMain);
+        mFilter.setExecutor(mBackground);
+    }
+
+    @Test
+    public void dispatchChanges_notifiesOnlyChangedRanges() {
+        int[] oldIndices = {0, 1, 2, 3, 4, 5, 6, 7};
+        int[] newIndices = {0, 4, 5, 8, 9};
+
+        ListFilter.dispatchChanges(oldIndices, newIndices, mCallback);
+
+        assertEquals(Arrays.asList("removed(1,3)", "removed(3,2)", "inserted(3,2)"), mCallback.events);
+    }
+
+    @Test
+    public void dispatchChanges_clearingFilterOnlyInsertsHiddenItems() {
+        int[] oldIndices = {1, 3};
+        int[] newIndices = {0, 1, 2, 3, 4, 5};
+
+        ListFilter.dispatchChanges(oldIndices, newIndices, mCallback);
+
+        assertEquals(Arrays.asList("inserted(0,1)", "inserted(2,1)", "inserted(4,2)"), mCallback.events);
+    }
+
+    @Test
+    public void update_supersededQueryStopsEarly() {
+        for (int i = 0; i < 600; i++) {
+            mData.add("item" + i);
+        }
+        final int[] checked = new int[1];
+        mFilter.setPredicate(new ItemPredicate<String>() {
+            @Override
+            public boolean accept(String item) {
+                checked[0]++;
+                return true;
+            }
+        });
+        mFilter.update();
+        mFilter.setPredicate(startsWith("item1"));
+        mFilter.update();
+
+        // 第一次提交在后台发现已有更新的提交，不再遍历剩下的item，也不发布结果
+        mBackground.runNext();
+        assertTrue(checked[0] < 600);
+        assertTrue(mMain.mTasks.isEmpty());
+
+        mBackground.runAll();
+        mMain.runAll();
+        // item1、item10~19、item100~199
+        assertEquals(111, mData.size());
+    }
+
+    @Test
+    public void update_dropsStaleResult() {
+        mData.addAll(FRUITS);
+        mFilter.setPredicate(startsWith("a"));
+        mFilter.update();
+        mBackground.runAll();
+        mFilter.setPredicate(startsWith("b"));
+        mFilter.update();
+
+        // 按a过滤的结果已经过期
+        mMain.runAll();
+        assertEquals(FRUITS, mData);
+        assertTrue(mCallback.events.isEmpty());
+
+        mBackground.runAll();
+        mMain.runAll();
+        assertEquals(Arrays.asList("banana", "blueberry"), mData);
+        assertEquals(Arrays.asList("removed(0,2)"), mCallback.events);
+    }
+
+    @Test
+    public void clear_restoresFullListWithoutWaiting() {
+        filterByB();
+        // 还有一次过滤在等待发布
+        mFilter.setPredicate(startsWith("a"));
+        mFilter.update();
+        mBackground.runAll();
+
+        mFilter.clear();
+
+        assertEquals(FRUITS, mData);
+        assertEquals(Arrays.asList("inserted(0,2)"), mCallback.events);
+        assertEquals(1, mClearedCount);
+        assertFalse(mFilter.isFiltering());
+
+        mMain.runAll();
+        assertEquals(FRUITS, mData);
+    }
+
+    @Test
+    public void appendSource_notifiesOnlyNewMatches() {
+        filterByB();
+
+        mFilter.appendSource(Arrays.asList("cherry", "blackberry"));
+        mBackground.runAll();
+        mMain.runAll();
+
+        assertEquals(Arrays.asList("banana", "blueberry", "blackberry"), mData);
+        assertEquals(Arrays.asList("inserted(2,1)"), mCallback.events);
+        assertEquals(6, mFilter.getSource().size());
+    }
+
+    @Test
+    public void replaceSource_diffsAgainstShownItems() {
+        filterByB();
+
+        // 在前面插入或submitList时完整数据被替换，用diff通知
+        mFilter.replaceSource(Arrays.asList("bilberry", "apple", "banana"));
+        mBackground.runAll();
+        mMain.runAll();
+
+        assertEquals(Arrays.asList("bilberry", "banana"), mData);
+        assertEquals(mData.size(), notifiedSize(2));
+
+        mCallback.events.clear();
+        mFilter.clear();
+        assertEquals(Arrays.asList("bilberry", "apple", "banana"), mData);
+        assertEquals(Arrays.asList("inserted(1,1)"), mCallback.events);
+    }
+
+    @Test
+    public void tokenIndex_matchesAllQueryTokensByPrefix() {
+        TokenIndex index = new TokenIndex();
+        index.add("Red Apple");
+        index.add("green apple pie");
+        index.add("Apricot jam");
+        index.add(null);
+        index.add("北京烤鸭");
+
+        assertEquals(bits(0, 1, 2), index.query(TokenIndex.tokenize("ap"), 5));
+        assertEquals(bits(1), index.query(TokenIndex.tokenize("APP gr"), 5));
+        assertEquals(bits(4), index.query(TokenIndex.tokenize("烤鸭"), 5));
+        assertEquals(bits(), index.query(TokenIndex.tokenize("apple jam"), 5));
+        // 只返回小于itemCount的下标
+        assertEquals(bits(0), index.query(TokenIndex.tokenize("apple"), 1));
+    }
+
+    // 按b过滤并发布结果，清空之前的通知
+    private void filterByB() {
+        mData.addAll(FRUITS);
+        mFilter.setPredicate(startsWith("b"));
+        mFilter.update();
+        mBackground.runAll();
+        mMain.runAll();
+        mCallback.events.clear();
+    }
+
+    // 按收到的插入和移除推算出的数量，应该与显示的数据一致
+    private int notifiedSize(int oldSize) {
+        int size = oldSize;
+        for (String event : mCallback.events) {
+            int count = Integer.parseInt(event.substring(event.indexOf(',') + 1, event.length() - 1));
+            if (event.startsWith("inserted")) {
+                size += count;
+            } else if (event.startsWith("removed")) {
+                size -= count;
+            }
+        }
+        return size;
+    }
+
+    private static ItemPredicate<String> startsWith(final String prefix) {
+        return new ItemPredicate<String>() {
+            @Override
+            public boolean accept(String item) {
+                return item.startsWith(prefix);
+            }
+        };
+    }
+
+    private static BitSet bits(int... indices) {
+        BitSet bits = new BitSet();
+        for (int index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,72 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadStateMachineTest {
+
+    @Test
+    public void requestLoad_coalescesWhileLoading() {
+        LoadStateMachine machine = new LoadStateMachine();
+
+        assertTrue(machine.requestLoad());
+        assertFalse(machine.requestLoad());
+        assertFalse(machine.requestLoad());
+
+        assertEquals(LoadingState.LOADING, machine.getState());
+        assertEquals(2, machine.getCoalescedCount());
+        assertEquals(2, machine.getSuppressedCount());
+    }
+
+    @Test
+    public void requestLoad_suppressedAtEndAndNoData() {
+        LoadStateMachine machine = new LoadStateMachine();
+
+        machine.moveTo(LoadingState.LOAD_END);
+        assertFalse(machine.requestLoad());
+        machine.moveTo(LoadingState.LOAD_NODATA);
+        assertFalse(machine.requestLoad());
+
+        assertEquals(0, machine.getCoalescedCount());
+        assertEquals(2, machine.getSuppressedCount());
+    }
+
+    @Test
+    public void requestLoad_allowedAfterCompleteOrError() {
+        LoadStateMachine machine = new LoadStateMachine();
+
+        assertTrue(machine.requestLoad());
+        machine.moveTo(LoadingState.LOAD_ERROR);
+        assertTrue(machine.requestLoad());
+        machine.moveTo(LoadingState.LOAD_COMPLETE);
+        assertTrue(machine.requestLoad());
+
+        assertEquals(0, machine.getSuppressedCount());
+    }
+
+    @Test
+    public void moveTo_notifiesOnlyOnChange() {
+        LoadStateMachine machine = new LoadStateMachine();
+        final List<LoadingState> states = new ArrayList<>();
+        machine.addOnStateChangedListener(new LoadStateMachine.OnStateChangedListener() {
+            @Override
+            public void onStateChanged(LoadingState oldState, LoadingState newState) {
+                states.add(newState);
+            }
+        });
+
+        machine.moveTo(LoadingState.LOAD_COMPLETE);
+        machine.requestLoad();
+        machine.requestLoad();
+        machine.moveTo(LoadingState.LOAD_COMPLETE);
+
+        assertEquals(Arrays.asList(LoadingState.LOADING, LoadingState.LOAD_COMPLETE), states);
+    }
+}
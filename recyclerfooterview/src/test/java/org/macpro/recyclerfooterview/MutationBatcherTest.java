@@ -0,0 +1,65 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MutationBatcherTest {
+
+    private final RecordingListUpdateCallback mCallback = new RecordingListUpdateCallback();
+
+    @Test
+    public void apply_mergesConsecutiveAppends() {
+        List<String> data = new ArrayList<>(Arrays.asList("a"));
+        List<MutationBatcher.Op<String>> ops = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ops.add(MutationBatcher.appendOp(Collections.singletonList("n" + i)));
+        }
+
+        MutationBatcher.apply(ops, data, new ItemDiffCallback<String>(), mCallback);
+
+        assertEquals(Collections.singletonList("inserted(1,30)"), mCallback.events);
+        assertEquals(31, data.size());
+    }
+
+    @Test
+    public void apply_keepsOrderAndClampsInsertPosition() {
+        List<String> data = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        List<MutationBatcher.Op<String>> ops = Arrays.asList(
+                MutationBatcher.insertOp(1, "x"),
+                MutationBatcher.insertOp(2, "y"),
+                MutationBatcher.removeOp("c"),
+                MutationBatcher.insertOp(100, "z"));
+
+        MutationBatcher.apply(ops, data, new ItemDiffCallback<String>(), mCallback);
+
+        assertEquals(Arrays.asList("a", "x", "y", "b", "z"), data);
+        assertEquals(Arrays.asList("inserted(1,2)", "removed(4,1)", "inserted(4,1)"), mCallback.events);
+    }
+
+    @Test
+    public void apply_updateUsesItemCallback() {
+        List<String> data = new ArrayList<>(Arrays.asList("a:1", "b:1", "c:1"));
+        ItemDiffCallback<String> byKey = new ItemDiffCallback<String>() {
+            @Override
+            public boolean areItemsTheSame(String oldItem, String newItem) {
+                return oldItem.charAt(0) == newItem.charAt(0);
+            }
+        };
+        List<MutationBatcher.Op<String>> ops = Arrays.asList(
+                MutationBatcher.updateOp("a:2"),
+                MutationBatcher.updateOp("b:2"),
+                MutationBatcher.updateOp("c:1"),
+                MutationBatcher.removeOp("missing"));
+
+        MutationBatcher.apply(ops, data, byKey, mCallback);
+
+        assertEquals(Arrays.asList("a:2", "b:2", "c:1"), data);
+        assertEquals(Collections.singletonList("changed(0,2)"), mCallback.events);
+    }
+}
@@ -0,0 +1,145 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 校验滑动时按item数、屏数预加载的阈值，以及同一页只预加载一次
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OnLoadMoreListenerTest {
+
+    private static final int ITEM_COUNT = 100;
+    // 一屏显示的child数
+    private static final int CHILD_COUNT = 10;
+
+    private RecyclerView mRecyclerView;
+    private FixedLayoutManager mLayoutManager;
+    private LoadStateMachine mStateMachine;
+    private OnLoadMoreListener mListener;
+    private int mLoadCount;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mRecyclerView = new RecyclerView(context);
+        mLayoutManager = new FixedLayoutManager(context);
+        mLayoutManager.mItemCount = ITEM_COUNT;
+        mRecyclerView.setLayoutManager(mLayoutManager);
+        mStateMachine = new LoadStateMachine();
+        mListener = new OnLoadMoreListener(mStateMachine) {
+            @Override
+            public void onLoadMore() {
+                mLoadCount++;
+            }
+        };
+    }
+
+    @Test
+    public void itemCountThreshold_loadsOnlyInsideDistance() {
+        mListener.setPrefetchItemCount(5);
+
+        scrollTo(ITEM_COUNT - 7);
+        assertEquals(0, mLoadCount);
+
+        scrollTo(ITEM_COUNT - 6);
+        assertEquals(1, mLoadCount);
+    }
+
+    @Test
+    public void screenCountThreshold_usesVisibleChildCount() {
+        // 1.5屏 * 10个child = 15个item
+        mListener.setPrefetchScreenCount(1.5f);
+
+        scrollTo(ITEM_COUNT - 17);
+        assertEquals(0, mLoadCount);
+
+        scrollTo(ITEM_COUNT - 16);
+        assertEquals(1, mLoadCount);
+    }
+
+    @Test
+    public void samePage_loadsOnceWithoutStateMachine() {
+        mListener.setLoadStateMachine(null);
+        mListener.setPrefetchItemCount(5);
+
+        scrollTo(ITEM_COUNT - 3);
+        scrollTo(ITEM_COUNT - 2);
+        assertEquals(1, mLoadCount);
+
+        // 追加了新的一页后再次进入预加载区间
+        mLayoutManager.mItemCount = ITEM_COUNT + 20;
+        scrollTo(ITEM_COUNT + 17);
+        assertEquals(2, mLoadCount);
+    }
+
+    @Test
+    public void loadError_retriesWithSameItemCount() {
+        mListener.setPrefetchItemCount(5);
+
+        scrollTo(ITEM_COUNT - 3);
+        mStateMachine.moveTo(LoadingState.LOAD_ERROR);
+        scrollTo(ITEM_COUNT - 2);
+
+        assertEquals(2, mLoadCount);
+    }
+
+    @Test
+    public void coalescedTrigger_isNotRecorded() {
+        mListener.setPrefetchItemCount(5);
+        // 下拉刷新占用了状态机，滑动触发被合并
+        mStateMachine.requestLoad();
+        scrollTo(ITEM_COUNT - 3);
+        assertEquals(0, mLoadCount);
+
+        // 刷新后item数不变，仍然可以加载下一页
+        mStateMachine.moveTo(LoadingState.LOAD_COMPLETE);
+        scrollTo(ITEM_COUNT - 2);
+
+        assertEquals(1, mLoadCount);
+    }
+
+    private void scrollTo(int lastVisible) {
+        mLayoutManager.mLastVisible = lastVisible;
+        mListener.onScrolled(mRecyclerView, 0, 12);
+    }
+
+    // 固定item数和最后可见位置的LayoutManager，不需要真正布局
+    static final class FixedLayoutManager extends LinearLayoutManager {
+        int mItemCount;
+        int mLastVisible;
+
+        FixedLayoutManager(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItemCount;
+        }
+
+        @Override
+        public int getChildCount() {
+            return CHILD_COUNT;
+        }
+
+        @Override
+        public int findLastVisibleItemPosition() {
+            return mLastVisible;
+        }
+
+        @Override
+        public int findLastCompletelyVisibleItemPosition() {
+            return mLastVisible;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class PageDiskCacheTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ItemCodec<String> STRING_CODEC = new ItemCodec<String>() {
+        @Override
+        public byte[] encode(String item) {
+            return item.getBytes(UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new String(bytes, UTF_8);
+        }
+    };
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void read_missingFileIsMiss() {
+        PageDiskCache<String> cache = newCache(3, 1024);
+
+        assertNull(cache.read());
+    }
+
+    @Test
+    public void writeThenRead_hits() throws IOException {
+        PageDiskCache<String> cache = newCache(3, 1024);
+        List<List<String>> pages = Arrays.asList(Arrays.asList("a", "中文"), Collections.singletonList("c"));
+
+        cache.write(pages);
+
+        assertEquals(pages, cache.read());
+        assertEquals(pages, newCache(3, 1024).read());
+    }
+
+    @Test
+    public void write_keepsOnlyFirstPages() throws IOException {
+        PageDiskCache<String> cache = newCache(2, 1024);
+
+        cache.write(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b"),
+                Collections.singletonList("c")));
+
+        assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b")), cache.read());
+    }
+
+    @Test
+    public void write_evictsTrailingPagesOverByteBudget() throws IOException {
+        // 每页 4字节item数 + 4字节长度 + 1字节内容 = 9字节
+        PageDiskCache<String> cache = newCache(10, 20);
+
+        cache.write(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b"),
+                Collections.singletonList("c")));
+
+        assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("b")), cache.read());
+    }
+
+    @Test
+    public void read_corruptedFileIsMissAndDeleted() throws IOException {
+        PageDiskCache<String> cache = newCache(3, 1024);
+        cache.write(Collections.singletonList(Arrays.asList("hello", "world")));
+        File file = cacheFile();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(raf.length() - 2);
+        raf.write('X');
+        raf.close();
+
+        assertNull(cache.read());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void read_truncatedFileIsMiss() throws IOException {
+        PageDiskCache<String> cache = newCache(3, 1024);
+        cache.write(Collections.singletonList(Arrays.asList("hello", "world")));
+
+        RandomAccessFile raf = new RandomAccessFile(cacheFile(), "rw");
+        raf.setLength(raf.length() - 3);
+        raf.close();
+
+        assertNull(cache.read());
+    }
+
+    @Test
+    public void read_fileLargerThanBudgetIsMiss() throws IOException {
+        newCache(3, 1024).write(Collections.singletonList(Arrays.asList("hello", "world")));
+
+        assertNull(newCache(3, 8).read());
+        assertFalse(cacheFile().exists());
+    }
+
+    @Test
+    public void writeAsync_olderSnapshotDoesNotOverwriteNewer() throws Exception {
+        final PageDiskCache<String> cache = newCache(3, 1024);
+        List<List<String>> older = Collections.singletonList(Collections.singletonList("v1"));
+        List<List<String>> newer = Collections.singletonList(Collections.singletonList("v2"));
+        final Thread[] worker = new Thread[1];
+        Executor threadExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                worker[0] = new Thread(command);
+                worker[0].start();
+            }
+        };
+        Executor direct = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+
+        synchronized (cache) {
+            // 第一个任务已经取到旧数据，还没进入write
+            cache.writeAsync(older, threadExecutor);
+            while (worker[0].getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+            cache.writeAsync(newer, direct);
+        }
+        worker[0].join();
+
+        assertEquals(newer, cache.read());
+    }
+
+    @Test
+    public void writeAsync_codecFailureKeepsLastGoodCache() throws IOException {
+        PageDiskCache<String> cache = new PageDiskCache<>(cacheFile(), new ItemCodec<String>() {
+            @Override
+            public byte[] encode(String item) throws IOException {
+                if ("bad".equals(item)) {
+                    throw new IllegalStateException("cannot encode");
+                }
+                return STRING_CODEC.encode(item);
+            }
+
+            @Override
+            public String decode(ByteBuffer buffer) throws IOException {
+                return STRING_CODEC.decode(buffer);
+            }
+        }, 3, 1024);
+        List<List<String>> good = Collections.singletonList(Arrays.asList("a", "b"));
+        cache.write(good);
+
+        // 异常不能抛到线程池
+        cache.writeAsync(Collections.singletonList(Arrays.asList("c", "bad")), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+
+        assertEquals(good, cache.read());
+        assertFalse(new File(cacheFile().getPath() + ".tmp").exists());
+    }
+
+    private PageDiskCache<String> newCache(int maxPages, int maxBytes) {
+        return new PageDiskCache<>(cacheFile(), STRING_CODEC, maxPages, maxBytes);
+    }
+
+    private File cacheFile() {
+        return new File(mFolder.getRoot(), "pages.cache");
+    }
+}
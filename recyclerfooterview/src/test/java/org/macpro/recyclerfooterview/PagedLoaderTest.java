@@ -0,0 +1,163 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PagedLoaderTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final List<String> mData = new ArrayList<>();
+    private final LoadStateMachine mStateMachine = new LoadStateMachine();
+    // 每页3个，共3页，页码从0开始
+    private final FakeSource mSource = new FakeSource(3);
+
+    private final PagedLoader.Target<String> mTarget = new PagedLoader.Target<String>() {
+        @Override
+        public void replaceData(List<String> data, Object key) {
+            mData.clear();
+            mData.addAll(data);
+        }
+
+        @Override
+        public void appendData(List<String> data, Object key) {
+            mData.addAll(data);
+        }
+    };
+
+    private PagedLoader<Integer, String> newLoader(Executor executor) {
+        return new PagedLoader<>(mSource, 0, mStateMachine, mTarget, executor, DIRECT, 3);
+    }
+
+    @Test
+    public void refresh_replacesDataWithFirstPage() {
+        PagedLoader<Integer, String> loader = newLoader(DIRECT);
+        mData.add("old");
+
+        loader.refresh();
+
+        assertEquals(Arrays.asList("0-0", "0-1", "0-2"), mData);
+        assertEquals(LoadingState.LOAD_COMPLETE, mStateMachine.getState());
+        assertFalse(loader.isRunning());
+    }
+
+    @Test
+    public void loadMore_appendsNextPages() {
+        PagedLoader<Integer, String> loader = newLoader(DIRECT);
+
+        loader.refresh();
+        loader.loadMore();
+
+        assertEquals(Arrays.asList("0-0", "0-1", "0-2", "1-0", "1-1", "1-2"), mData);
+        assertEquals(Arrays.asList(0, 1), mSource.mLoadedKeys);
+    }
+
+    @Test
+    public void loadMore_afterFailedRefreshRetriesAsRefresh() {
+        PagedLoader<Integer, String> loader = newLoader(DIRECT);
+        loader.refresh();
+        loader.loadMore();
+
+        mSource.mFailNext = true;
+        loader.refresh();
+        assertEquals(LoadingState.LOAD_ERROR, mStateMachine.getState());
+
+        // 脚布局点击重试走的是loadMore，第一页不能追加到旧数据后面
+        loader.loadMore();
+
+        assertEquals(Arrays.asList("0-0", "0-1", "0-2"), mData);
+        assertEquals(LoadingState.LOAD_COMPLETE, mStateMachine.getState());
+    }
+
+    @Test
+    public void loadMore_afterFailedAppendRetriesSamePage() {
+        PagedLoader<Integer, String> loader = newLoader(DIRECT);
+        loader.refresh();
+
+        mSource.mFailNext = true;
+        loader.loadMore();
+        assertEquals(LoadingState.LOAD_ERROR, mStateMachine.getState());
+
+        loader.loadMore();
+
+        assertEquals(Arrays.asList("0-0", "0-1", "0-2", "1-0", "1-1", "1-2"), mData);
+        assertEquals(Arrays.asList(0, 1), mSource.mLoadedKeys);
+    }
+
+    @Test
+    public void cancel_dropsResultOfStaleGeneration() {
+        QueueExecutor executor = new QueueExecutor();
+        PagedLoader<Integer, String> loader = newLoader(executor);
+
+        loader.refresh();
+        assertTrue(loader.isRunning());
+        loader.cancel();
+        executor.runAll();
+        assertTrue(mData.isEmpty());
+
+        // 刷新会让之前发出的加载过期
+        loader.loadMore();
+        loader.refresh();
+        executor.runAll();
+        assertEquals(Arrays.asList("0-0", "0-1", "0-2"), mData);
+    }
+
+    @Test
+    public void deliver_movesToEndAndNoData() {
+        PagedLoader<Integer, String> loader = newLoader(DIRECT);
+        loader.refresh();
+        loader.loadMore();
+        loader.loadMore();
+        assertEquals(LoadingState.LOAD_END, mStateMachine.getState());
+
+        // 到底后不再加载
+        loader.loadMore();
+        assertEquals(3, mSource.mLoadedKeys.size());
+
+        mSource.mPageCount = 0;
+        loader.refresh();
+        assertTrue(mData.isEmpty());
+        assertEquals(LoadingState.LOAD_NODATA, mStateMachine.getState());
+    }
+
+    private static class FakeSource extends PagedSource<Integer, String> {
+        int mPageCount;
+        boolean mFailNext;
+        final List<Integer> mLoadedKeys = new ArrayList<>();
+
+        FakeSource(int pageCount) {
+            mPageCount = pageCount;
+        }
+
+        @Override
+        public Page<Integer, String> load(Integer key, int pageSize) throws Exception {
+            if (mFailNext) {
+                mFailNext = false;
+                throw new Exception("load failed");
+            }
+            mLoadedKeys.add(key);
+            if (key >= mPageCount) {
+                return new Page<>(Collections.<String>emptyList(), null);
+            }
+            List<String> data = new ArrayList<>();
+            for (int i = 0; i < pageSize; i++) {
+                data.add(key + "-" + i);
+            }
+            return new Page<>(data, key + 1 < mPageCount ? key + 1 : null);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 校验多布局Adapter的局部刷新：updateItem和diff的payload交给注册的delegate，未注册的viewType交给子类绑定
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PartialBindTest {
+
+    // 子类自己处理的viewType，以#开头的item使用
+    private static final int CUSTOM_TYPE = 100;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final List<String> mEvents = new ArrayList<>();
+    private Context mContext;
+    private RecyclerView mRecyclerView;
+    private MixedAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mAdapter = new MixedAdapter(mContext);
+        mAdapter.registerDelegate(String.class, new ItemViewDelegate<String>() {
+            @Override
+            public LoadMoreLinearBase2Adapter.ViewHolder onCreateViewHolder(LayoutInflater inflater, ViewGroup parent) {
+                return new LoadMoreLinearBase2Adapter.ViewHolder(new TextView(parent.getContext()));
+            }
+
+            @Override
+            public void onBindViewHolder(LoadMoreLinearBase2Adapter.ViewHolder holder, String s, int position) {
+                ((TextView) holder.itemView).setText(s);
+                mEvents.add("bind:" + s);
+            }
+
+            @Override
+            public void onBindViewHolder(LoadMoreLinearBase2Adapter.ViewHolder holder, String s, int position,
+                                         List<Object> payloads) {
+                mEvents.add("partial:" + s + ":" + payloads);
+            }
+        });
+        mAdapter.addData(Arrays.asList("a", "#b"));
+        mRecyclerView = new RecyclerView(mContext);
+        mRecyclerView.setLayoutManager(new LinearLayoutManager(mContext));
+        mRecyclerView.setItemAnimator(null);
+        mRecyclerView.setAdapter(mAdapter);
+        layout();
+        mEvents.clear();
+    }
+
+    @Test
+    public void updateItem_passesPayloadToDelegate() {
+        mAdapter.updateItem(0, "p");
+        layout();
+
+        assertEquals(Collections.singletonList("partial:a:[p]"), mEvents);
+    }
+
+    @Test
+    public void updateItem_unregisteredTypeFallsBackToCustomBind() {
+        mAdapter.updateItem(1, "p");
+        layout();
+
+        assertEquals(Collections.singletonList("custom:#b"), mEvents);
+    }
+
+    @Test
+    public void submitList_passesChangePayloadToDelegate() {
+        mAdapter.setDiffExecutor(DIRECT);
+        mAdapter.setItemDiffCallback(new ItemDiffCallback<String>() {
+            // 首字母相同视为同一个item
+            @Override
+            public boolean areItemsTheSame(String oldItem, String newItem) {
+                return oldItem.charAt(0) == newItem.charAt(0);
+            }
+
+            @Override
+            public Object getChangePayload(String oldItem, String newItem) {
+                return "text";
+            }
+        });
+
+        mAdapter.submitList(Arrays.asList("a2", "#b"));
+        ShadowLooper.runUiThreadTasks();
+        layout();
+
+        assertEquals(Collections.singletonList("partial:a2:[text]"), mEvents);
+    }
+
+    private void layout() {
+        mRecyclerView.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, 480, 800);
+    }
+
+    // 注册了String的delegate，以#开头的item由子类自己创建和绑定
+    private class MixedAdapter extends LoadMoreLinearBase2Adapter<String> {
+
+        MixedAdapter(Context context) {
+            super(context);
+        }
+
+        @Override
+        public int getCustomItemViewType(int position) {
+            return getmDatas().get(position).startsWith("#") ? CUSTOM_TYPE : super.getCustomItemViewType(position);
+        }
+
+        @Override
+        public ViewHolder onCreateCustomViewHolder(ViewGroup parent, int viewType) {
+            if (viewType == CUSTOM_TYPE) {
+                return new ViewHolder(new TextView(parent.getContext()));
+            }
+            return super.onCreateCustomViewHolder(parent, viewType);
+        }
+
+        @Override
+        public void onBindCustomViewHolder(ViewHolder holder, int position) {
+            if (holder.getItemViewType() == CUSTOM_TYPE) {
+                mEvents.add("custom:" + getmDatas().get(position));
+                return;
+            }
+            super.onBindCustomViewHolder(holder, position);
+        }
+    }
+}
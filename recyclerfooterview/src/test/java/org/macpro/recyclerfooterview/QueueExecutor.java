@@ -0,0 +1,32 @@
+package org.macpro.recyclerfooterview;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 先把任务排队，由测试决定什么时候执行，用来模拟后台线程和主线程消息的先后顺序
+ */
+class QueueExecutor implements Executor {
+
+    final List<Runnable> mTasks = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable command) {
+        mTasks.add(command);
+    }
+
+    // 执行最早排队的一个任务
+    void runNext() {
+        mTasks.remove(0).run();
+    }
+
+    // 执行当前排队的任务，执行中新排队的留到下次
+    void runAll() {
+        List<Runnable> tasks = new ArrayList<>(mTasks);
+        mTasks.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+}
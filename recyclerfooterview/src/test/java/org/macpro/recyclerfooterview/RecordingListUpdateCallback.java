@@ -0,0 +1,34 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 记录收到的所有区间变化，便于断言具体通知了哪些位置
+ */
+class RecordingListUpdateCallback implements ListUpdateCallback {
+
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onInserted(int position, int count) {
+        events.add("inserted(" + position + "," + count + ")");
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        events.add("removed(" + position + "," + count + ")");
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        events.add("moved(" + fromPosition + "," + toPosition + ")");
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        events.add("changed(" + position + "," + count + ")");
+    }
+}
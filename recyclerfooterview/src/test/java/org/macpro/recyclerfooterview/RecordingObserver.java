@@ -0,0 +1,39 @@
+package org.macpro.recyclerfooterview;
+
+import android.support.v7.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 记录Adapter发出的所有通知，便于断言具体触发了哪些notify
+ */
+class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onChanged() {
+        events.add("changed");
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+        events.add("rangeChanged(" + positionStart + "," + itemCount + ")");
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        events.add("rangeInserted(" + positionStart + "," + itemCount + ")");
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        events.add("rangeRemoved(" + positionStart + "," + itemCount + ")");
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        events.add("rangeMoved(" + fromPosition + "," + toPosition + "," + itemCount + ")");
+    }
+}
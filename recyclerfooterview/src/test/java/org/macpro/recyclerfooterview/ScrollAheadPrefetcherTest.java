@@ -0,0 +1,70 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScrollAheadPrefetcherTest {
+
+    private final List<String> mEvents = new ArrayList<>();
+    private ScrollAheadPrefetcher mPrefetcher;
+
+    @Before
+    public void setUp() {
+        mPrefetcher = new ScrollAheadPrefetcher(new ScrollAheadPrefetcher.Callback() {
+            @Override
+            public void onPrefetch(int fromPosition, int toPosition) {
+                mEvents.add(fromPosition + "-" + toPosition);
+            }
+
+            @Override
+            public void onCancel() {
+                mEvents.add("cancel");
+            }
+        });
+        mPrefetcher.setItemCount(3, 20);
+    }
+
+    @Test
+    public void onScrolled_reportsOnlyNewPositionsAndRespectsInterval() {
+        // 每个item高100，一屏10个，速度很慢
+        mPrefetcher.onScrolled(1, 0, 9, 100, 1000, 0);
+        mPrefetcher.onScrolled(1, 0, 9, 100, 1000, 50);
+        mPrefetcher.onScrolled(1, 0, 9, 100, 1000, 150);
+        mPrefetcher.onScrolled(1, 1, 10, 100, 1000, 300);
+
+        assertEquals(Arrays.asList("10-12", "13-13", "14-14"), mEvents);
+    }
+
+    @Test
+    public void onScrolled_fastFlingWidensRangeUpToMax() {
+        mPrefetcher.onScrolled(1, 0, 9, 100, 1000, 0);
+        mEvents.clear();
+        // 每毫秒10像素，500毫秒内滑过50个item，超过上限20个
+        mPrefetcher.onScrolled(1000, 10, 19, 100, 1000, 100);
+
+        assertEquals(Collections.singletonList("20-39"), mEvents);
+    }
+
+    @Test
+    public void onScrolled_directionReversalCancels() {
+        mPrefetcher.onScrolled(1, 20, 29, 100, 1000, 0);
+        mPrefetcher.onScrolled(-1, 20, 29, 100, 1000, 10);
+
+        assertEquals(Arrays.asList("30-32", "cancel", "17-19"), mEvents);
+    }
+
+    @Test
+    public void onScrolled_clampsToItemCount() {
+        mPrefetcher.onScrolled(1, 90, 98, 100, 1000, 0);
+        mPrefetcher.onScrolled(1, 91, 99, 100, 1000, 200);
+
+        assertEquals(Collections.singletonList("99-99"), mEvents);
+    }
+}
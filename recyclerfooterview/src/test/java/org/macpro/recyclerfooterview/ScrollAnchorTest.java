@@ -0,0 +1,67 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 校验在前面插入数据时第一个可见的数据行保持原来的偏移
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ScrollAnchorTest {
+
+    private static final int ROW_HEIGHT = 100;
+
+    private Context mContext;
+    private LoadMoreLinearBaseAdapter<String> mAdapter;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mAdapter = new LoadMoreLinearBaseAdapter<String>(mContext, R.layout.layout_refresh_footer) {
+            @Override
+            public void bind(ViewHolder holder, String s, int position) {
+                holder.itemView.getLayoutParams().height = ROW_HEIGHT;
+            }
+        };
+    }
+
+    @Test
+    public void prependData_keepsFirstVisibleDataRowWhenOnlyHeadersAbove() {
+        View header = new View(mContext);
+        header.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+        mAdapter.addHeaderView(header);
+        mAdapter.addData(Arrays.asList("a", "b", "c"));
+        RecyclerView recyclerView = new RecyclerView(mContext);
+        recyclerView.setLayoutManager(new LinearLayoutManager(mContext));
+        recyclerView.setItemAnimator(null);
+        recyclerView.setAdapter(mAdapter);
+        layout(recyclerView);
+        assertEquals(ROW_HEIGHT, recyclerView.findViewHolderForAdapterPosition(1).itemView.getTop());
+
+        mAdapter.prependData(Arrays.asList("x", "y"));
+        layout(recyclerView);
+
+        // 不处理时LayoutManager以头布局为锚点，插入的数据会把a挤到下面
+        assertEquals("a", mAdapter.getmDatas().get(mAdapter.getDataPosition(3)));
+        assertEquals(ROW_HEIGHT, recyclerView.findViewHolderForAdapterPosition(3).itemView.getTop());
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 480, 800);
+    }
+}
@@ -0,0 +1,85 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SortedOrderTest {
+
+    private final RecordingListUpdateCallback mCallback = new RecordingListUpdateCallback();
+
+    // 按冒号后面的数字排序，冒号前面是id
+    private static final Comparator<String> BY_SCORE = new Comparator<String>() {
+        @Override
+        public int compare(String o1, String o2) {
+            return Integer.compare(score(o1), score(o2));
+        }
+    };
+
+    private static final ItemDiffCallback<String> BY_ID = new ItemDiffCallback<String>() {
+        @Override
+        public boolean areItemsTheSame(String oldItem, String newItem) {
+            return oldItem.charAt(0) == newItem.charAt(0);
+        }
+    };
+
+    private static int score(String item) {
+        return Integer.parseInt(item.substring(item.indexOf(':') + 1));
+    }
+
+    @Test
+    public void merge_insertsBatchInOnePassWithRangeNotifications() {
+        SortedOrder<String> order = new SortedOrder<>(BY_SCORE);
+        List<String> data = new ArrayList<>(Arrays.asList("a:10", "b:20", "c:30"));
+
+        order.merge(data, Arrays.asList("z:40", "x:15", "y:16", "w:41", "v:20"), mCallback);
+
+        assertEquals(Arrays.asList("a:10", "x:15", "y:16", "b:20", "v:20", "c:30", "z:40", "w:41"), data);
+        assertEquals(Arrays.asList("inserted(1,2)", "inserted(4,1)", "inserted(6,2)"), mCallback.events);
+    }
+
+    @Test
+    public void merge_singleItemUsesBinarySearch() {
+        SortedOrder<String> order = new SortedOrder<>(BY_SCORE);
+        List<String> data = new ArrayList<>(Arrays.asList("a:10", "b:20", "c:30"));
+
+        order.merge(data, Collections.singletonList("d:20"), mCallback);
+
+        assertEquals(Arrays.asList("a:10", "b:20", "d:20", "c:30"), data);
+        assertEquals(Collections.singletonList("inserted(2,1)"), mCallback.events);
+    }
+
+    @Test
+    public void update_movesItemWhenSortKeyChanges() {
+        SortedOrder<String> order = new SortedOrder<>(BY_SCORE);
+        List<String> data = new ArrayList<>(Arrays.asList("a:10", "b:20", "c:30", "d:40"));
+
+        order.update(data, "a:35", BY_ID, mCallback);
+        order.update(data, "c:31", BY_ID, mCallback);
+        assertFalse(order.update(data, "e:50", BY_ID, mCallback));
+
+        assertEquals(Arrays.asList("b:20", "c:31", "a:35", "d:40"), data);
+        assertEquals(Arrays.asList("moved(0,2)", "changed(2,1)", "changed(1,1)"), mCallback.events);
+    }
+
+    @Test
+    public void mutationBatcher_appliesPostedOpsInSortedOrder() {
+        SortedOrder<String> order = new SortedOrder<>(BY_SCORE);
+        List<String> data = new ArrayList<>(Arrays.asList("a:10", "b:20"));
+        List<MutationBatcher.Op<String>> ops = Arrays.asList(
+                MutationBatcher.appendOp(Arrays.asList("d:5", "e:30")),
+                MutationBatcher.insertOp(100, "f:15"),
+                MutationBatcher.removeOp("b:20"));
+
+        MutationBatcher.apply(ops, data, BY_ID, order, mCallback);
+
+        assertEquals(Arrays.asList("d:5", "a:10", "f:15", "e:30"), data);
+    }
+}
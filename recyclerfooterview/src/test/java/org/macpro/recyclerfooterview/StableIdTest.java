@@ -0,0 +1,143 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 校验开启stable ids后整体刷新能按id复用原来的ViewHolder
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StableIdTest {
+
+    // 一屏能显示的item数，超过RecycledViewPool默认的5个
+    private static final int VISIBLE_ITEMS = 12;
+    private static final int ITEM_HEIGHT = 50;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+    }
+
+    @Test
+    public void getItemId_usesExtractorAndReservedFooterId() {
+        CountingAdapter adapter = new CountingAdapter(mContext);
+        adapter.setItemIdExtractor(new ItemIdExtractor<Long>() {
+            @Override
+            public long getItemId(Long item) {
+                return item;
+            }
+        });
+        adapter.addData(items(3));
+
+        assertTrue(adapter.hasStableIds());
+        assertEquals(100L, adapter.getItemId(0));
+        assertEquals(ItemIdExtractor.FOOTER_ID, adapter.getItemId(3));
+    }
+
+    @Test
+    public void withoutExtractor_noStableIds() {
+        CountingAdapter adapter = new CountingAdapter(mContext);
+        adapter.addData(items(3));
+
+        assertFalse(adapter.hasStableIds());
+        assertEquals(RecyclerView.NO_ID, adapter.getItemId(0));
+    }
+
+    @Test
+    public void fullRefresh_withoutStableIds_recreatesHolders() {
+        CountingAdapter adapter = new CountingAdapter(mContext);
+        int created = layoutThenRefresh(adapter);
+
+        // 超出池容量的ViewHolder在整体刷新后需要重新创建
+        assertTrue(adapter.mCreateCount > created);
+    }
+
+    @Test
+    public void fullRefresh_withStableIds_reusesHoldersAndBindsOnce() {
+        CountingAdapter adapter = new CountingAdapter(mContext);
+        adapter.setItemIdExtractor(new ItemIdExtractor<Long>() {
+            @Override
+            public long getItemId(Long item) {
+                return item;
+            }
+        });
+        int created = layoutThenRefresh(adapter);
+
+        assertEquals(created, adapter.mCreateCount);
+        // 每个可见item只重新绑定一次，没有经过回收池的额外创建和绑定
+        assertEquals(created * 2, adapter.mBindCount);
+    }
+
+    // 布局一次后整体刷新再布局，返回第一次布局创建的ViewHolder数
+    private int layoutThenRefresh(CountingAdapter adapter) {
+        adapter.addData(items(VISIBLE_ITEMS * 3));
+        RecyclerView recyclerView = new RecyclerView(mContext);
+        recyclerView.setItemAnimator(null);
+        recyclerView.setLayoutManager(new LinearLayoutManager(mContext));
+        recyclerView.setAdapter(adapter);
+        layout(recyclerView);
+        int created = adapter.mCreateCount;
+        assertEquals(created, adapter.mBindCount);
+
+        adapter.notifyDataSetChanged();
+        layout(recyclerView);
+        return created;
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        int height = VISIBLE_ITEMS * ITEM_HEIGHT;
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(480, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 480, height);
+    }
+
+    private static List<Long> items(int count) {
+        List<Long> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(100L + i);
+        }
+        return items;
+    }
+
+
+    private static class CountingAdapter extends LoadMoreLinearBaseAdapter<Long> {
+
+        int mCreateCount;
+        int mBindCount;
+
+        CountingAdapter(Context context) {
+            super(context, R.layout.layout_refresh_footer);
+        }
+
+        @Override
+        public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            mCreateCount++;
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ITEM_HEIGHT));
+            return new ViewHolder(view);
+        }
+
+        @Override
+        public void bind(ViewHolder holder, Long item, int position) {
+            mBindCount++;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.macpro.recyclerfooterview;
+
+import android.content.Context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 校验submitList在后台diff期间的取消、丢弃过期结果和暂存的修改，diff不会碰到脚布局
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SubmitListTest {
+
+    private QueueExecutor mDiffExecutor;
+    private RecordingObserver mObserver;
+    private LoadMoreLinearBaseAdapter<String> mAdapter;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        mDiffExecutor = new QueueExecutor();
+        mObserver = new RecordingObserver();
+        mAdapter = new LoadMoreLinearBaseAdapter<String>(context, R.layout.layout_refresh_footer) {
+            @Override
+            public void bind(ViewHolder holder, String s, int position) {
+            }
+        };
+        mAdapter.setDiffExecutor(mDiffExecutor);
+    }
+
+    @Test
+    public void newerSubmit_discardsStaleResult() {
+        mAdapter.addData(Arrays.asList("a", "b", "c"));
+
+        mAdapter.submitList(Arrays.asList("a", "b"));
+        mAdapter.submitList(Arrays.asList("c", "d"));
+        runDiff();
+        assertEquals(Arrays.asList("a", "b", "c"), mAdapter.getmDatas());
+
+        runDiff();
+        assertEquals(Arrays.asList("c", "d"), mAdapter.getmDatas());
+        assertEquals(3, mAdapter.getItemCount());
+    }
+
+    @Test
+    public void clearAll_cancelsPendingDiff() {
+        mAdapter.addData(Arrays.asList("a", "b"));
+        mAdapter.submitList(Arrays.asList("b", "c"));
+
+        mAdapter.clearAll();
+        runDiff();
+
+        assertTrue(mAdapter.getmDatas().isEmpty());
+        assertEquals(1, mAdapter.getItemCount());
+    }
+
+    @Test
+    public void addAndPrependDuringDiff_areAppliedAfterIt() {
+        mAdapter.addData(Arrays.asList("a", "b"));
+        mAdapter.submitList(Arrays.asList("b", "c"));
+
+        mAdapter.addData(Arrays.asList("d"));
+        mAdapter.prependData(Arrays.asList("z"));
+        assertEquals(Arrays.asList("a", "b"), mAdapter.getmDatas());
+
+        runDiff();
+        assertEquals(Arrays.asList("z", "b", "c", "d"), mAdapter.getmDatas());
+        assertEquals(5, mAdapter.getItemCount());
+    }
+
+    @Test
+    public void diff_staysBeforeFooter() {
+        mAdapter.addData(Arrays.asList("a", "b", "c"));
+        mAdapter.registerAdapterDataObserver(mObserver);
+
+        mAdapter.submitList(Arrays.asList("a", "c", "d", "e"));
+        runDiff();
+
+        // 按通知逐步推算数据区间的大小，每次通知都不能超出数据区间
+        int size = 3;
+        for (String event : mObserver.events) {
+            String[] args = event.substring(event.indexOf('(') + 1, event.length() - 1).split(",");
+            int position = Integer.parseInt(args[0]);
+            int count = Integer.parseInt(args[args.length - 1]);
+            if (event.startsWith("rangeInserted")) {
+                assertTrue(event, position <= size);
+                size += count;
+            } else if (event.startsWith("rangeRemoved")) {
+                assertTrue(event, position + count <= size);
+                size -= count;
+            } else if (event.startsWith("rangeMoved")) {
+                assertTrue(event, position < size && Integer.parseInt(args[1]) < size);
+            } else {
+                assertTrue(event, event.startsWith("rangeChanged") && position + count <= size);
+            }
+        }
+        assertEquals(4, size);
+        assertEquals(FixedViewSlots.LOAD_MORE_TYPE, mAdapter.getItemViewType(mAdapter.getItemCount() - 1));
+    }
+
+    // 执行最早提交的diff，并把结果发布到主线程
+    private void runDiff() {
+        mDiffExecutor.runNext();
+        ShadowLooper.runUiThreadTasks();
+    }
+}
@@ -0,0 +1,49 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 校验按viewType统计容量，包括RecyclerView默认的viewType 0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TunableViewPoolTest {
+
+    @Test
+    public void setMaxRecycledViews_isKeptForTypeZero() {
+        TunableViewPool pool = new TunableViewPool();
+
+        pool.setMaxRecycledViews(0, 12);
+
+        assertEquals(12, pool.getMaxRecycledViews(0));
+    }
+
+    @Test
+    public void adaptiveGrowth_worksForTypeZero() {
+        TunableViewPool pool = new TunableViewPool();
+
+        // 每次绑定都要新建，说明池太小
+        for (int i = 0; i < 32; i++) {
+            pool.onViewHolderCreated(0);
+            pool.onViewHolderBound(0);
+        }
+
+        assertEquals(7, pool.getMaxRecycledViews(0));
+    }
+
+    @Test
+    public void declaredMax_isNotAdjusted() {
+        TunableViewPool pool = new TunableViewPool();
+        pool.setMaxRecycledViews(0, 3);
+
+        for (int i = 0; i < 32; i++) {
+            pool.onViewHolderCreated(0);
+            pool.onViewHolderBound(0);
+        }
+
+        assertEquals(3, pool.getMaxRecycledViews(0));
+    }
+}
@@ -0,0 +1,121 @@
+package org.macpro.recyclerfooterview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class WindowedListTest {
+
+    @Test
+    public void trim_evictsFarthestPagesAndKeepsPositions() {
+        WindowedList<String> list = new WindowedList<>(null, 6);
+        for (int page = 0; page < 5; page++) {
+            list.appendPage(page(page, 2), page, true);
+        }
+
+        List<WindowedList.Page<String>> evicted = list.trim(9);
+
+        assertEquals(10, list.size());
+        assertEquals(2, evicted.size());
+        assertEquals(0, evicted.get(0).key);
+        assertEquals(1, evicted.get(1).key);
+        assertNull(list.get(0));
+        assertTrue(list.isPlaceholder(3));
+        assertEquals("p4-1", list.get(9));
+        assertFalse(list.isOverBudget());
+    }
+
+    @Test
+    public void trim_keepsAnchorNeighboursAndUnreloadablePages() {
+        WindowedList<String> list = new WindowedList<>(null, 1);
+        list.addAll(page(0, 2));
+        list.appendPage(page(1, 2), 1, true);
+        list.appendPage(page(2, 2), 2, true);
+
+        List<WindowedList.Page<String>> evicted = list.trim(2);
+
+        assertTrue(evicted.isEmpty());
+        assertEquals("p0-0", list.get(0));
+        assertEquals("p2-1", list.get(5));
+    }
+
+    @Test
+    public void restore_fillsEvictedPage() {
+        WindowedList<String> list = new WindowedList<>(null, 2);
+        list.appendPage(page(0, 2), 0, true);
+        list.appendPage(page(1, 2), 1, true);
+        list.appendPage(page(2, 2), 2, true);
+        WindowedList.Page<String> page = list.trim(5).get(0);
+
+        assertTrue(list.restore(page, Arrays.asList("x", "y")));
+
+        assertEquals("x", list.get(0));
+        assertEquals("y", list.get(1));
+        assertFalse(list.isPlaceholder(1));
+        assertEquals(6, list.getResidentWeight());
+    }
+
+    @Test
+    public void restore_keepsPageEvictedWhenSizeChanged() {
+        WindowedList<String> list = new WindowedList<>(null, 2);
+        list.appendPage(page(0, 2), 0, true);
+        list.appendPage(page(1, 2), 1, true);
+        list.appendPage(page(2, 2), 2, true);
+        WindowedList.Page<String> page = list.trim(5).get(0);
+        page.loading = true;
+
+        assertFalse(list.restore(page, Arrays.asList("x")));
+        assertFalse(list.restore(page, Arrays.asList("x", "y", "z")));
+
+        // 仍是占位，下次绑定时可以再次重新加载
+        assertTrue(list.isPlaceholder(0));
+        assertTrue(list.isPlaceholder(1));
+        assertNull(list.get(1));
+        assertFalse(page.loading);
+        assertEquals(4, list.getResidentWeight());
+    }
+
+    @Test
+    public void estimator_controlsBudget() {
+        WindowedList<String> list = new WindowedList<>(new ItemSizeEstimator<String>() {
+            @Override
+            public long estimateSize(String item) {
+                return item.length();
+            }
+        }, 16);
+        list.appendPage(page(0, 2), 0, true);
+        list.appendPage(page(1, 2), 1, true);
+        list.appendPage(page(2, 2), 2, true);
+
+        assertTrue(list.isOverBudget());
+        list.trim(5);
+        assertEquals(16, list.getResidentWeight());
+    }
+
+    @Test
+    public void clear_detachesOldPages() {
+        WindowedList<String> list = new WindowedList<>(null, 10);
+        list.appendPage(page(0, 2), 0, true);
+        WindowedList.Page<String> page = list.findPage(1);
+
+        list.clear();
+
+        assertFalse(list.contains(page));
+        assertEquals(0, list.size());
+    }
+
+    private static List<String> page(int page, int size) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add("p" + page + "-" + i);
+        }
+        return items;
+    }
+}